@@ -0,0 +1,77 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.rest.impl.util.CqlTranslator;
+import org.folio.rest.impl.util.ExactMatchQuery;
+import org.folio.rest.persist.Criteria.Limit;
+import org.folio.rest.persist.Criteria.Offset;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CQL to SQL translation, per request with {@link CQLWrapper} as formerly done by
+ * {@code EventConfigAPIs.buildSqlWrapper}, with a shared translator and with the {@link CqlTranslator} cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CqlTranslationBenchmark {
+
+  private static final String EVENT_CONFIGS_JSONB = "event_configurations.jsonb";
+
+  @Param({
+    "name==RESET_PASSWORD_EVENT",
+    "active==true sortBy name",
+    "name=\"*PASSWORD*\" and templates=\"email\"",
+  })
+  public String query;
+
+  private CQL2PgJSON sharedCql2PgJson;
+  private CqlTranslator cqlTranslator;
+
+  @Setup
+  public void setUp() throws FieldException {
+    sharedCql2PgJson = new CQL2PgJSON(EVENT_CONFIGS_JSONB);
+    cqlTranslator = new CqlTranslator(EVENT_CONFIGS_JSONB, 16);
+  }
+
+  @Benchmark
+  public String buildSqlWrapper() throws FieldException {
+    return new CQLWrapper(new CQL2PgJSON(EVENT_CONFIGS_JSONB), query)
+      .setLimit(new Limit(10))
+      .setOffset(new Offset(0))
+      .toString();
+  }
+
+  @Benchmark
+  public String translateWithSharedTranslator() throws QueryValidationException {
+    return sharedCql2PgJson.toSql(query).getWhere();
+  }
+
+  @Benchmark
+  public String translateWithCache() throws QueryValidationException {
+    return cqlTranslator.toSql(query).getWhere();
+  }
+
+  @Benchmark
+  public Object parseExactMatchQuery() {
+    return ExactMatchQuery.parse(query);
+  }
+}
@@ -0,0 +1,129 @@
+package org.folio.benchmark;
+
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
+
+import java.util.concurrent.TimeUnit;
+
+import org.folio.postgres.testing.PostgresTesterContainer;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.impl.util.EventConfigCache;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.jaxrs.model.TenantJob;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+
+/**
+ * End-to-end GET /eventConfig against the RestVerticle and the embedded postgres-testing database.
+ * <p>
+ * {@code name==X} is answered by the exact match path, {@code name=X} goes through CQL2PgJSON.
+ * With {@code cached=false} the tenant's cache is invalidated before every invocation, so both
+ * make the database round trip; {@code cached=true} measures the cache hits of {@code name==X}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GetByNameBenchmark {
+
+  private static final String TENANT_ID = "diku";
+  private static final String OKAPI_TOKEN = "test_token";
+  private static final long TIMEOUT_SECONDS = 120;
+
+  @Param({"name==RESET_PASSWORD_EVENT", "name=RESET_PASSWORD_EVENT"})
+  public String query;
+
+  @Param({"false", "true"})
+  public boolean cached;
+
+  private Vertx vertx;
+  private WebClient client;
+  private int port;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    port = NetworkUtils.nextFreePort();
+    PostgresClient.setPostgresTester(new PostgresTesterContainer());
+    vertx.deployVerticle(RestVerticle.class.getName(),
+        new DeploymentOptions().setConfig(new JsonObject().put("http.port", port)))
+      .toCompletionStage().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    postTenant().toCompletionStage().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    client = WebClient.create(vertx);
+  }
+
+  @Setup(Level.Invocation)
+  public void invalidateCache() {
+    if (!cached) {
+      EventConfigCache.getInstance().invalidate(TENANT_ID);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    PostgresClient.stopPostgresTester();
+  }
+
+  @Benchmark
+  public int getByName() throws Exception {
+    HttpResponse<Buffer> response = client.get(port, "localhost", "/eventConfig")
+      .addQueryParam("query", query)
+      .putHeader(OKAPI_HEADER_TENANT, TENANT_ID)
+      .putHeader(OKAPI_HEADER_TOKEN, OKAPI_TOKEN)
+      .send()
+      .toCompletionStage().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode());
+    }
+    return response.body().length();
+  }
+
+  private io.vertx.core.Future<Void> postTenant() {
+    TenantClient tenantClient = new TenantClient("http://localhost:" + port, TENANT_ID, OKAPI_TOKEN);
+    Promise<Void> promise = Promise.promise();
+    try {
+      tenantClient.postTenant(new TenantAttributes().withModuleTo("mod-event-config-1.0.0"), postResult -> {
+        if (postResult.failed()) {
+          promise.fail(postResult.cause());
+          return;
+        }
+        String jobId = postResult.result().bodyAsJson(TenantJob.class).getId();
+        tenantClient.getTenantByOperationId(jobId, 10000, getResult -> {
+          if (getResult.failed()) {
+            promise.fail(getResult.cause());
+            return;
+          }
+          promise.complete();
+        });
+      });
+    } catch (Exception e) {
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+}
@@ -0,0 +1,88 @@
+package org.folio.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.jaxrs.model.EventConfigCollection;
+import org.folio.rest.jaxrs.model.EventConfigEntity;
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.folio.rest.jaxrs.model.Template;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.Json;
+
+/**
+ * JSON (de)serialization of event configurations with the Vert.x Jackson codec.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+  @Param({"1", "100", "1000"})
+  public int collectionSize;
+
+  private EventConfigEntity entity;
+  private String entityJson;
+  private EventConfigCollection collection;
+  private String collectionJson;
+
+  @Setup
+  public void setUp() {
+    entity = new EventConfigEntity()
+      .withId(UUID.randomUUID().toString())
+      .withName("RESET_PASSWORD_EVENT")
+      .withActive(true)
+      .withTemplates(List.of(template("email", "text/html"), template("sms", "text/plain")));
+    entityJson = Json.encode(entity);
+
+    List<EventEntity> entities = new ArrayList<>(collectionSize);
+    for (int i = 0; i < collectionSize; i++) {
+      entities.add(Json.decodeValue(entityJson, EventEntity.class).withId(UUID.randomUUID().toString()).withName("EVENT_" + i));
+    }
+    collection = new EventConfigCollection().withEventEntity(entities).withTotalRecords(collectionSize);
+    collectionJson = Json.encode(collection);
+  }
+
+  @Benchmark
+  public String encodeEntity() {
+    return Json.encode(entity);
+  }
+
+  @Benchmark
+  public EventConfigEntity decodeEntity() {
+    return Json.decodeValue(entityJson, EventConfigEntity.class);
+  }
+
+  @Benchmark
+  public String encodeCollection() {
+    return Json.encode(collection);
+  }
+
+  @Benchmark
+  public EventConfigCollection decodeCollection() {
+    return Json.decodeValue(collectionJson, EventConfigCollection.class);
+  }
+
+  private static Template template(String deliveryChannel, String outputFormat) {
+    return new Template()
+      .withTemplateId(UUID.randomUUID().toString())
+      .withDeliveryChannel(deliveryChannel)
+      .withOutputFormat(outputFormat);
+  }
+}
@@ -0,0 +1,42 @@
+package org.folio.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.Response;
+
+import org.folio.cql2pgjson.exception.CQL2PgJSONException;
+import org.folio.rest.impl.util.EventConfigHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Both branches of {@link EventConfigHelper#mapException(Throwable)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapExceptionBenchmark {
+
+  private final Throwable badRequest = new CQL2PgJSONException("Invalid query");
+  private final Throwable internalError = new IllegalStateException("Connection refused");
+
+  @Benchmark
+  public Response mapBadRequest() {
+    return EventConfigHelper.mapException(badRequest);
+  }
+
+  @Benchmark
+  public Response mapInternalServerError() {
+    return EventConfigHelper.mapException(internalError);
+  }
+}
@@ -1,39 +1,96 @@
 package org.folio.rest.impl;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import javax.ws.rs.core.Response;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+import org.folio.rest.impl.util.ContentNegotiation;
+import org.folio.rest.impl.util.CqlTranslator;
+import org.folio.rest.impl.util.EventConfigBatch;
+import org.folio.rest.impl.util.EventConfigCache;
+import org.folio.rest.impl.util.EventConfigChanges;
+import org.folio.rest.impl.util.EventConfigNotifications;
 import org.folio.rest.impl.util.EventConfigHelper;
+import org.folio.rest.impl.util.EventConfigMetrics;
+import org.folio.rest.impl.util.EventConfigVersions;
+import org.folio.rest.impl.util.EventTemplateValidator;
+import org.folio.rest.impl.util.ExactMatchQuery;
+import org.folio.rest.impl.util.FieldProjection;
+import org.folio.rest.impl.util.LogSampler;
+import org.folio.rest.impl.util.NdjsonStreamWriter;
+import org.folio.rest.impl.util.PageCursor;
+import org.folio.rest.impl.util.ReadReplica;
+import org.folio.rest.impl.util.SingleFlight;
+import org.folio.rest.impl.util.SlowQueryLog;
+import org.folio.rest.impl.util.TaggedEntity;
+import org.folio.rest.impl.util.TenantQueryLimiter;
+import org.folio.rest.impl.util.TotalRecords;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.folio.rest.jaxrs.model.EventConfigBatchResult;
+import org.folio.rest.jaxrs.model.EventConfigChange;
 import org.folio.rest.jaxrs.model.EventConfigCollection;
 import org.folio.rest.jaxrs.model.EventConfigEntity;
+import org.folio.rest.jaxrs.model.EventConfigHistory;
+import org.folio.rest.jaxrs.model.EventConfigLookup;
+import org.folio.rest.jaxrs.model.EventConfigResolution;
+import org.folio.rest.jaxrs.model.EventConfigVersion;
 import org.folio.rest.jaxrs.model.EventEntity;
+import org.folio.rest.jaxrs.model.ResultInfo;
+import org.folio.rest.jaxrs.model.Template;
 import org.folio.rest.jaxrs.resource.EventConfig;
-import org.folio.rest.persist.Criteria.Limit;
-import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.PgUtil;
 import org.folio.rest.persist.PostgresClient;
-import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.persist.interfaces.Results;
+import org.folio.rest.tools.utils.MetadataUtil;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.micrometer.core.instrument.Timer;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
 
 public class EventConfigAPIs implements EventConfig {
 
   private static final Logger logger = LogManager.getLogger(EventConfigAPIs.class);
 
   private static final String EVENT_CONFIGS = "event_configurations";
+  private static final String NOT_FOUND = "Not found";
+  private static final int WARM_UP_LIMIT = 100;
+  private static final int WARM_UP_CONCURRENCY = 2;
+  private static final int STREAM_FETCH_SIZE = 100;
+  private static final String PAGE = "page";
+  private static final String COUNT = "count";
+  private static final SingleFlight<CollectionQuery, Results<EventEntity>> IN_FLIGHT = new SingleFlight<>();
 
   private final Vertx vertx;
   private final String tenantId;
+  private final EventConfigCache cache = EventConfigCache.getInstance();
+  private final EventConfigMetrics metrics = EventConfigMetrics.getInstance();
+  private final ReadReplica readReplica = ReadReplica.getInstance();
+  private final TenantQueryLimiter limiter = TenantQueryLimiter.getInstance();
+  private final SlowQueryLog slowQueries = SlowQueryLog.getInstance();
+  private final EventConfigNotifications notifications = EventConfigNotifications.getInstance();
 
   public EventConfigAPIs(Vertx vertx, String tenantId) {
     this.vertx = vertx;
@@ -41,76 +98,716 @@ public class EventConfigAPIs implements EventConfig {
   }
 
   @Override
-  public void getEventConfig(String query, int offset, int limit, String lang, Map<String, String> okapiHeaders,
+  public void getEventConfig(String totalRecords, String cursor, String fields, String deliveryChannel, String query,
+                             int offset, int limit, String lang, String ifNoneMatch, String accept,
+                             String acceptEncoding, Map<String, String> okapiHeaders,
                              Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     logger.debug("getEventConfig:: Trying to get Event Configuration");
-    buildSqlWrapper(query, offset, limit)
-      .compose(cqlWrapper -> getEventConfigCollection(cqlWrapper, vertx, tenantId))
-      .map(this::mapResultsToConfigCollections)
-      .map(GetEventConfigResponse::respond200WithApplicationJson)
-      .map(Response.class::cast)
+    Handler<AsyncResult<Response>> handler = metrics.timed("getEventConfig", asyncResultHandler);
+    TotalRecords totalRecordsMode = TotalRecords.fromValue(totalRecords);
+    FieldProjection projection = FieldProjection.of(fields, deliveryChannel);
+    CollectionQuery key = new CollectionQuery(tenantId, cache.generation(tenantId), query == null ? null : query.trim(),
+      cursor, fields, deliveryChannel, offset, limit, totalRecordsMode);
+    IN_FLIGHT.execute(key, () -> db("getEventConfig",
+        () -> getEventConfigResults(query, cursor, projection, offset, limit, totalRecordsMode)))
+      .map(results -> mapResultsToConfigCollections(results, totalRecordsMode, query, limit))
+      .map(collection -> metrics.timeSerialization("getEventConfig", () -> TaggedEntity.of(collection)))
+      .map(tagged -> ContentNegotiation.of(accept, acceptEncoding).respond(tagged, ifNoneMatch))
       .otherwise(EventConfigHelper::mapException)
-      .onComplete(asyncResultHandler);
+      .onComplete(handler);
+  }
+
+  /**
+   * Identifies identical collection reads of a tenant, which share one database query while in flight.
+   * The cache generation changes with every write, so reads arriving after a write never join a
+   * read that started before it.
+   */
+  private record CollectionQuery(String tenantId, long generation, String query, String cursor, String fields,
+                                 String deliveryChannel, int offset, int limit, TotalRecords totalRecords) {
+  }
+
+  private Future<Results<EventEntity>> getEventConfigResults(String query, String cursor, FieldProjection projection,
+                                                             int offset, int limit, TotalRecords totalRecords) {
+    if (cursor != null) {
+      try {
+        UUID lastId = PageCursor.decode(cursor);
+        return translateQuery(query)
+          .compose(sqlSelect -> getEventConfigCollection(query, sqlSelect, projection, lastId, offset, limit,
+            totalRecords));
+      } catch (QueryValidationException e) {
+        if (LogSampler.getInstance().sample("invalid_cursor") >= 0) {
+          logger.warn("getEventConfigResults:: {}", e.getMessage());
+        }
+        return Future.failedFuture(e);
+      }
+    }
+    Optional<ExactMatchQuery> exactMatchQuery = ExactMatchQuery.parse(query);
+    if (exactMatchQuery.isEmpty()) {
+      return translateQuery(query)
+        .compose(sqlSelect -> getEventConfigCollection(query, sqlSelect, projection, null, offset, limit,
+          totalRecords));
+    }
+    return getExactMatchResults(exactMatchQuery.get(), projection, offset, limit, totalRecords);
+  }
+
+  private Future<Results<EventEntity>> getExactMatchResults(ExactMatchQuery exactMatch, FieldProjection projection,
+                                                            int offset, int limit, TotalRecords totalRecords) {
+    if (exactMatch.getField() != ExactMatchQuery.Field.NAME || !projection.isAll() || !cache.isEnabled()) {
+      return getExactMatchCollection(exactMatch, projection, offset, limit, totalRecords);
+    }
+    List<EventEntity> cached = cache.getByName(tenantId, exactMatch.getCacheKey());
+    metrics.cacheAccess("name", cached != null);
+    if (cached != null) {
+      logger.debug("getExactMatchResults:: Cache hit for name: {}", exactMatch.getValue());
+      return Future.succeededFuture(toResults(cached, offset, limit));
+    }
+    long generation = cache.generation(tenantId);
+    // filling the cache needs the count, which is free for the unique name
+    return getExactMatchCollection(exactMatch, projection, offset, limit, TotalRecords.EXACT)
+      .onSuccess(results -> {
+        Integer totalRecords = results.getResultInfo().getTotalRecords();
+        if (offset == 0 && totalRecords != null && totalRecords == results.getResults().size()) {
+          cache.putByName(tenantId, generation, exactMatch.getCacheKey(), results.getResults());
+        }
+      });
+  }
+
+  /**
+   * Returns the page of the exact match query. The exact count is taken from the page query with
+   * a window function; the estimated count of a non-unique field runs {@code count_estimate}
+   * alongside, and no count is taken if none is requested.
+   */
+  private Future<Results<EventEntity>> getExactMatchCollection(ExactMatchQuery query, FieldProjection projection,
+                                                               int offset, int limit, TotalRecords totalRecords) {
+    logger.debug("getExactMatchCollection:: Trying to get Event Configurations by exact match on {}", query.getField());
+    String schema = PostgresClient.convertToPsqlStandard(tenantId);
+    String from = " FROM " + schema + "." + EVENT_CONFIGS + " WHERE " + query.toWhereClause(schema);
+    TotalRecords countMode = query.countMode(totalRecords);
+    if (countMode != TotalRecords.EXACT) {
+      Future<List<EventEntity>> entities = read("SELECT " + projection.toSelect(4) + " AS jsonb"
+            + from + " ORDER BY id LIMIT $2 OFFSET $3",
+          projection.bind(query.toTuple().addInteger(limit).addInteger(offset)))
+        .map(rows -> {
+          List<EventEntity> list = new ArrayList<>(rows.size());
+          rows.forEach(row -> list.add(row.getJsonObject("jsonb").mapTo(EventEntity.class)));
+          return list;
+        });
+      Future<Integer> count = countMode == TotalRecords.NONE
+        ? Future.succeededFuture(null)
+        : read("SELECT " + schema + ".count_estimate($1)", Tuple.of("SELECT jsonb FROM " + schema + "."
+            + EVENT_CONFIGS + " WHERE " + query.toLiteralWhereClause(schema)))
+          .map(rows -> rows.iterator().next().getInteger(0));
+      return Future.all(entities, count)
+        .map(all -> toResults(entities.result(), count.result()));
+    }
+    return read("SELECT " + projection.toSelect(4) + " AS jsonb, count(*) OVER () AS total_records"
+          + from + " ORDER BY id LIMIT $2 OFFSET $3",
+        projection.bind(query.toTuple().addInteger(limit).addInteger(offset)))
+      .compose(rows -> {
+        List<EventEntity> entities = new ArrayList<>(rows.size());
+        int count = 0;
+        for (Row row : rows) {
+          entities.add(row.getJsonObject("jsonb").mapTo(EventEntity.class));
+          count = row.getInteger("total_records");
+        }
+        if (entities.isEmpty() && offset > 0) {
+          // the page is beyond the last row, the window count is not available
+          return read("SELECT count(*)" + from, query.toTuple())
+            .map(countRows -> toResults(entities, countRows.iterator().next().getInteger(0)));
+        }
+        return Future.succeededFuture(toResults(entities, count));
+      });
   }
 
-  private Future<CQLWrapper> buildSqlWrapper(String query, int offset, int limit) {
-    logger.debug("buildSqlWrapper:: Trying to build SQL Wrapper");
+  private static Results<EventEntity> toResults(List<EventEntity> entities, int offset, int limit) {
+    return toResults(entities.stream().skip(offset).limit(limit).toList(), entities.size());
+  }
+
+  private static Results<EventEntity> toResults(List<EventEntity> entities, Integer totalRecords) {
+    Results<EventEntity> results = new Results<>();
+    results.setResults(entities);
+    results.setResultInfo(new ResultInfo().withTotalRecords(totalRecords));
+    return results;
+  }
+
+  private Future<SqlSelect> translateQuery(String query) {
+    logger.debug("translateQuery:: Trying to translate CQL query");
+    if (query == null || query.isBlank()) {
+      return Future.succeededFuture(null);
+    }
     try {
-      logger.info("buildSqlWrapper:: Building SQL Wrapper");
-      CQL2PgJSON cql2pgJson = new CQL2PgJSON(EVENT_CONFIGS + ".jsonb");
-      CQLWrapper cqlWrapper = new CQLWrapper(cql2pgJson, query)
-        .setLimit(new Limit(limit))
-        .setOffset(new Offset(offset));
-      return Future.succeededFuture(cqlWrapper);
+      return Future.succeededFuture(CqlTranslator.getInstance().toSql(query));
     } catch (Exception e) {
-      logger.warn("buildSqlWrapper:: Error building SQL Wrapper");
+      if (LogSampler.getInstance().sample("invalid_query") >= 0) {
+        logger.warn("translateQuery:: Error translating CQL query: {}", query);
+      }
       return Future.failedFuture(e);
     }
   }
 
-  private Future<Results<EventEntity>> getEventConfigCollection(CQLWrapper cqlWrapper, Vertx vertx, String tenantId) {
+  /**
+   * Returns the page of the query, queries without sortBy are ordered by id. With the id of the
+   * last record of the previous page the page seeks past it and offset is ignored.
+   */
+  private Future<Results<EventEntity>> getEventConfigCollection(String query, SqlSelect sqlSelect,
+                                                                FieldProjection projection, UUID lastId,
+                                                                int offset, int limit, TotalRecords totalRecords) {
     logger.debug("getEventConfigCollection:: Trying to get the Collection of Event Configurations with tenant id :{}",tenantId);
-    PostgresClient postgresClient = PostgresClient.getInstance(vertx, tenantId);
-
-    String[] fieldList = {"*"};
-    Promise<Results<EventEntity>> promise = Promise.promise();
-    postgresClient.get(EVENT_CONFIGS, EventEntity.class, fieldList, cqlWrapper,
-      true, false, promise::handle);
-    return promise.future();
+    String schema = PostgresClient.convertToPsqlStandard(tenantId);
+    String where = sqlSelect == null ? "" : sqlSelect.getWhere();
+    String from = " FROM " + schema + "." + EVENT_CONFIGS + (where.isEmpty() ? "" : " WHERE " + where);
+    boolean orderedById = sqlSelect == null || sqlSelect.getOrderBy().isEmpty();
+    String select = "SELECT " + projection.toSelect(3) + " AS jsonb";
+    Future<RowSet<Row>> page;
+    if (lastId == null) {
+      String orderBy = orderedById ? " ORDER BY id" : " ORDER BY " + sqlSelect.getOrderBy();
+      page = read(PAGE, query, select + from + orderBy + " LIMIT $1 OFFSET $2",
+        projection.bind(Tuple.of(limit, offset)));
+    } else if (orderedById) {
+      String seek = where.isEmpty() ? " WHERE id > $2" : " WHERE (" + where + ") AND id > $2";
+      page = read(PAGE, query, select + " FROM " + schema + "." + EVENT_CONFIGS + seek + " ORDER BY id LIMIT $1",
+        projection.bind(Tuple.of(limit, lastId)));
+    } else {
+      return Future.failedFuture(new QueryValidationException("cursor is not supported for queries with sortBy"));
+    }
+    Future<List<EventEntity>> entities = page
+      .map(rows -> {
+        List<EventEntity> list = new ArrayList<>(rows.size());
+        rows.forEach(row -> list.add(row.getJsonObject("jsonb").mapTo(EventEntity.class)));
+        return list;
+      });
+    Future<Integer> count = switch (totalRecords) {
+      case NONE -> Future.succeededFuture(null);
+      case EXACT -> read(COUNT, query, "SELECT count(*)" + from, Tuple.tuple())
+        .map(rows -> rows.iterator().next().getInteger(0));
+      case ESTIMATED -> read(COUNT, query, "SELECT " + schema + ".count_estimate($1)", Tuple.of("SELECT jsonb" + from))
+        .map(rows -> rows.iterator().next().getInteger(0));
+    };
+    return Future.all(entities, count)
+      .map(all -> toResults(entities.result(), count.result()));
   }
 
-  private EventConfigCollection mapResultsToConfigCollections(Results<EventEntity> results) {
+  private EventConfigCollection mapResultsToConfigCollections(Results<EventEntity> results, TotalRecords totalRecords,
+                                                              String query, int limit) {
     logger.debug("mapResultsToConfigCollections:: Mapping results to Configuration Collection");
-    return new EventConfigCollection()
-      .withEventEntity(results.getResults())
-      .withTotalRecords(results.getResultInfo().getTotalRecords());
+    List<EventEntity> entities = results.getResults();
+    EventConfigCollection collection = new EventConfigCollection()
+      .withEventEntity(entities);
+    if (totalRecords != TotalRecords.NONE) {
+      collection.setTotalRecords(results.getResultInfo().getTotalRecords());
+    }
+    if (limit > 0 && entities.size() == limit && isOrderedById(query)) {
+      collection.setNextCursor(PageCursor.encode(entities.get(entities.size() - 1).getId()));
+    }
+    return collection;
+  }
+
+  private static boolean isOrderedById(String query) {
+    if (query == null || query.isBlank() || ExactMatchQuery.parse(query).isPresent()) {
+      return true;
+    }
+    try {
+      return CqlTranslator.getInstance().toSql(query).getOrderBy().isEmpty();
+    } catch (QueryValidationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Opens the tenant's connection pool and runs the name lookup of each active event
+   * configuration, which also fills the name and id caches. The lookups go through the tenant's
+   * query limit, {@value #WARM_UP_CONCURRENCY} at a time, so that the warm-up leaves room for requests.
+   */
+  Future<Void> warmUp() {
+    logger.info("warmUp:: Warming up Event Configurations of tenant: {}", tenantId);
+    long generation = cache.generation(tenantId);
+    String sql = "SELECT jsonb->>'name' AS name FROM " + PostgresClient.convertToPsqlStandard(tenantId) + "."
+      + EVENT_CONFIGS + " WHERE jsonb->>'active' = 'true' LIMIT " + WARM_UP_LIMIT;
+    return db("warmUp", () -> PostgresClient.getInstance(vertx, tenantId).execute(sql, Tuple.tuple()))
+      .compose(rows -> {
+        Queue<String> names = new ConcurrentLinkedQueue<>();
+        rows.forEach(row -> names.add(row.getString("name")));
+        List<Future<Void>> workers = new ArrayList<>(WARM_UP_CONCURRENCY);
+        for (int i = 0; i < WARM_UP_CONCURRENCY; i++) {
+          workers.add(warmUpNames(names, generation));
+        }
+        return Future.all(workers);
+      })
+      .onSuccess(x -> logger.info("warmUp:: Warmed up Event Configurations of tenant: {}", tenantId))
+      .mapEmpty();
+  }
+
+  private Future<Void> warmUpNames(Queue<String> names, long generation) {
+    String name = names.poll();
+    if (name == null) {
+      return Future.succeededFuture();
+    }
+    return db("warmUp",
+        () -> getExactMatchResults(ExactMatchQuery.ofName(name), FieldProjection.ALL, 0, 1, TotalRecords.EXACT))
+      .onSuccess(results -> results.getResults().forEach(entity -> cache.putById(tenantId, generation,
+        TaggedEntity.of(JsonObject.mapFrom(entity).mapTo(EventConfigEntity.class)))))
+      .compose(x -> warmUpNames(names, generation));
   }
 
   @Override
   public void postEventConfig(String lang, EventConfigEntity entity, Map<String, String> okapiHeaders,
                               Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     logger.debug("postEventConfig:: Trying to post the Event Configuration");
-    PgUtil.post(EVENT_CONFIGS, entity, okapiHeaders, vertxContext, PostEventConfigResponse.class, asyncResultHandler);
+    Handler<AsyncResult<Response>> handler = metrics.timed("postEventConfig", asyncResultHandler);
+    if (entity.getId() == null) {
+      entity.setId(UUID.randomUUID().toString());
+    }
+    validateTemplates(entity.getTemplates(), okapiHeaders, handler, () ->
+      this.<Response>db("postEventConfig", () -> write(List.of(entity.getId()), () -> Future.future(promise ->
+          PgUtil.post(EVENT_CONFIGS, entity, okapiHeaders, vertxContext, PostEventConfigResponse.class,
+            promise::handle))))
+        .onComplete(afterWrite(EventConfigChange.Action.CREATED, null, entity, () -> null, handler)));
+  }
+
+  @Override
+  public void getEventConfigStream(String query, RoutingContext routingContext, Map<String, String> okapiHeaders,
+                                   Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    logger.debug("getEventConfigStream:: Trying to stream Event Configurations");
+    Timer.Sample sample = metrics.startRequest();
+    routingContext.addEndHandler(x ->
+      metrics.stopRequest(sample, "getEventConfigStream", routingContext.response().getStatusCode()));
+    translateQuery(query)
+      // the stream holds its connection until it ends, so it counts against the tenant's limit until then
+      .compose(sqlSelect -> limiter.execute(tenantId, () -> PostgresClient.getInstance(vertx, tenantId)
+        .withTrans(conn -> conn.getPgConnection().prepare(streamSql(sqlSelect))
+          .compose(statement -> NdjsonStreamWriter.write(statement.createStream(STREAM_FETCH_SIZE),
+            row -> row.getJsonObject("jsonb").mapTo(EventEntity.class), routingContext.response())))))
+      .onFailure(e -> asyncResultHandler.handle(Future.succeededFuture(EventConfigHelper.mapException(e))));
+  }
+
+  private String streamSql(SqlSelect sqlSelect) {
+    StringBuilder sql = new StringBuilder("SELECT jsonb FROM ")
+      .append(PostgresClient.convertToPsqlStandard(tenantId)).append('.').append(EVENT_CONFIGS);
+    if (sqlSelect != null && !sqlSelect.getWhere().isEmpty()) {
+      sql.append(" WHERE ").append(sqlSelect.getWhere());
+    }
+    if (sqlSelect != null && !sqlSelect.getOrderBy().isEmpty()) {
+      sql.append(" ORDER BY ").append(sqlSelect.getOrderBy());
+    }
+    return sql.toString();
+  }
+
+  @Override
+  public void getEventConfigResolve(String name, String deliveryChannel, String outputFormat,
+                                    Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+                                    Context vertxContext) {
+    logger.debug("getEventConfigResolve:: Trying to resolve templates of Event Configuration: {}", name);
+    Handler<AsyncResult<Response>> handler = metrics.timed("getEventConfigResolve", asyncResultHandler);
+    db("getEventConfigResolve",
+        () -> getExactMatchResults(ExactMatchQuery.ofName(name), FieldProjection.ALL, 0, 1, TotalRecords.EXACT))
+      .map(results -> results.getResults().stream()
+        .filter(entity -> Boolean.TRUE.equals(entity.getActive()))
+        .findFirst()
+        .map(entity -> (Response) GetEventConfigResolveResponse.respond200WithApplicationJson(
+          resolve(entity, deliveryChannel, outputFormat)))
+        .orElseGet(() -> GetEventConfigResolveResponse.respond404WithTextPlain(NOT_FOUND)))
+      .otherwise(EventConfigHelper::mapException)
+      .onComplete(handler);
+  }
+
+  private static EventConfigResolution resolve(EventEntity entity, String deliveryChannel, String outputFormat) {
+    return new EventConfigResolution()
+      .withId(entity.getId())
+      .withName(entity.getName())
+      .withTemplates(Optional.ofNullable(entity.getTemplates()).orElse(List.of()).stream()
+        .filter(template -> deliveryChannel.equals(template.getDeliveryChannel()))
+        .filter(template -> outputFormat == null || outputFormat.equals(template.getOutputFormat()))
+        .toList());
+  }
+
+  @Override
+  public void postEventConfigLookup(EventConfigLookup entity, Map<String, String> okapiHeaders,
+                                    Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("postEventConfigLookup:: Trying to get Event Configurations by {} names and {} ids",
+        entity.getNames().size(), entity.getIds().size());
+    }
+    Handler<AsyncResult<Response>> handler = metrics.timed("postEventConfigLookup", asyncResultHandler);
+    String[] names = entity.getNames().toArray(String[]::new);
+    UUID[] ids = entity.getIds().stream()
+      .filter(EventConfigHelper::isUuid)
+      .map(UUID::fromString)
+      .toArray(UUID[]::new);
+    if (names.length == 0 && ids.length == 0) {
+      handler.handle(Future.succeededFuture(PostEventConfigLookupResponse.respond200WithApplicationJson(
+        new EventConfigCollection().withTotalRecords(0))));
+      return;
+    }
+    String schema = PostgresClient.convertToPsqlStandard(tenantId);
+    // the ARRAY is evaluated once, so that the name condition is an index scan on the unique name index
+    String sql = "SELECT jsonb FROM " + schema + "." + EVENT_CONFIGS
+      + " WHERE lower(" + schema + ".f_unaccent(jsonb->>'name'))"
+      + " = ANY(ARRAY(SELECT lower(" + schema + ".f_unaccent(name)) FROM unnest($1::text[]) AS name))"
+      + " OR id = ANY($2::uuid[]) ORDER BY id";
+    db("postEventConfigLookup",
+        () -> read(sql, Tuple.of(names, ids)))
+      .map(rows -> {
+        List<EventEntity> entities = new ArrayList<>(rows.size());
+        rows.forEach(row -> entities.add(row.getJsonObject("jsonb").mapTo(EventEntity.class)));
+        return new EventConfigCollection()
+          .withEventEntity(entities)
+          .withTotalRecords(entities.size());
+      })
+      .map(PostEventConfigLookupResponse::respond200WithApplicationJson)
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException)
+      .onComplete(handler);
+  }
+
+  @Override
+  public void postEventConfigBatch(EventConfigCollection entity, Map<String, String> okapiHeaders,
+                                   Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    if (logger.isDebugEnabled()) {
+      logger.debug("postEventConfigBatch:: Trying to upsert a batch of {} Event Configurations",
+        entity.getEventEntity().size());
+    }
+    Handler<AsyncResult<Response>> handler = metrics.timed("postEventConfigBatch", asyncResultHandler);
+    List<String> ids = new ArrayList<>(entity.getEventEntity().size());
+    for (EventEntity entry : entity.getEventEntity()) {
+      if (entry.getId() == null) {
+        entry.setId(UUID.randomUUID().toString());
+      }
+      ids.add(entry.getId());
+    }
+    EventConfigBatch batch = new EventConfigBatch(PostgresClient.getInstance(vertx, tenantId), tenantId, EVENT_CONFIGS,
+      EventTemplateValidator.getInstance(vertx), okapiHeaders);
+    db("postEventConfigBatch", () -> write(ids, () -> batch.upsert(entity.getEventEntity())))
+      .onComplete(x -> afterCommit())
+      .onSuccess(result -> publishBatchChanges(entity.getEventEntity(), result, batch))
+      .map(PostEventConfigBatchResponse::respond200WithApplicationJson)
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException)
+      .onComplete(handler);
+  }
+
+  private void publishBatchChanges(List<EventEntity> entities, EventConfigBatchResult result, EventConfigBatch batch) {
+    for (int i = 0; i < entities.size(); i++) {
+      BatchResult.Status status = result.getBatchResults().get(i).getStatus();
+      if (status != BatchResult.Status.FAILED) {
+        EventEntity entry = entities.get(i);
+        EventConfigChanges.publish(vertx, tenantId, new EventConfigChange()
+          .withAction(status == BatchResult.Status.CREATED ? EventConfigChange.Action.CREATED : EventConfigChange.Action.UPDATED)
+          .withId(entry.getId())
+          .withName(entry.getName())
+          .withVersion(batch.getVersion(entry.getId())));
+      }
+    }
   }
 
   @Override
-  public void getEventConfigById(String id, String lang, Map<String, String> okapiHeaders,
+  public void getEventConfigChanges(RoutingContext routingContext, Map<String, String> okapiHeaders,
+                                    Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    logger.debug("getEventConfigChanges:: Subscribing to Event Configuration changes");
+    Timer.Sample sample = metrics.startRequest();
+    routingContext.addEndHandler(x ->
+      metrics.stopRequest(sample, "getEventConfigChanges", routingContext.response().getStatusCode()));
+    EventConfigChanges.subscribe(vertx, tenantId, routingContext.response());
+  }
+
+  @Override
+  public void getEventConfigById(String id, String asOf, String lang, String ifNoneMatch,
+                                 Map<String, String> okapiHeaders,
                                  Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     logger.debug("getEventConfigById:: Trying to get the Event Configuration By Id : {}",id);
-    PgUtil.getById(EVENT_CONFIGS, EventConfigEntity.class, id, okapiHeaders, vertxContext, GetEventConfigByIdResponse.class, asyncResultHandler);
+    Handler<AsyncResult<Response>> handler = metrics.timed("getEventConfigById", asyncResultHandler);
+    if (asOf != null) {
+      getEventConfigAsOf(id, asOf, ifNoneMatch).onComplete(handler);
+      return;
+    }
+    TaggedEntity<EventConfigEntity> cached = cache.getById(tenantId, id);
+    if (cache.isEnabled()) {
+      metrics.cacheAccess("id", cached != null);
+    }
+    if (cached != null) {
+      logger.debug("getEventConfigById:: Cache hit for id: {}", id);
+      handler.handle(Future.succeededFuture(EventConfigHelper.respondWithETag(cached, ifNoneMatch)));
+      return;
+    }
+    long generation = cache.generation(tenantId);
+    db("getEventConfigById", () -> getByIdResponse(id, okapiHeaders, vertxContext))
+      .onComplete(ar -> {
+        if (ar.succeeded() && ar.result().getEntity() instanceof EventConfigEntity entity) {
+          TaggedEntity<EventConfigEntity> tagged = metrics.timeSerialization("getEventConfigById", () -> TaggedEntity.of(entity));
+          cache.putById(tenantId, generation, tagged);
+          handler.handle(Future.succeededFuture(EventConfigHelper.respondWithETag(tagged, ifNoneMatch)));
+          return;
+        }
+        handler.handle(ar);
+      });
+  }
+
+  private Future<Response> getEventConfigAsOf(String id, String asOf, String ifNoneMatch) {
+    logger.debug("getEventConfigAsOf:: Trying to get the Event Configuration By Id : {} as of {}", id, asOf);
+    OffsetDateTime time = EventConfigVersions.parseAsOf(asOf);
+    if (time == null) {
+      return Future.succeededFuture(GetEventConfigByIdResponse.respond400WithTextPlain("Invalid asOf: " + asOf));
+    }
+    if (!EventConfigHelper.isUuid(id)) {
+      return Future.succeededFuture(GetEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND));
+    }
+    // replay all versions up to the last one at that time, so a version stamped out of order
+    // cannot leave a gap
+    String history = PostgresClient.convertToPsqlStandard(tenantId) + "." + EventConfigVersions.HISTORY;
+    String sql = "SELECT " + EventConfigVersions.VERSION_JSON + " AS jsonb FROM " + history
+      + " WHERE config_id = $1 AND version <= (SELECT max(version) FROM " + history
+      + " WHERE config_id = $1 AND changed_at <= $2) ORDER BY version";
+    return db("getEventConfigById", () -> read(sql, Tuple.of(UUID.fromString(id), time)))
+      .map(rows -> {
+        List<JsonObject> versions = new ArrayList<>(rows.size());
+        rows.forEach(row -> versions.add(row.getJsonObject("jsonb")));
+        JsonObject config = EventConfigVersions.replay(versions);
+        if (config == null) {
+          return GetEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND);
+        }
+        return EventConfigHelper.respondWithETag(TaggedEntity.of(config.mapTo(EventConfigEntity.class)), ifNoneMatch);
+      })
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException);
+  }
+
+  @Override
+  public void getEventConfigHistoryById(String id, int offset, int limit, Map<String, String> okapiHeaders,
+                                        Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    logger.debug("getEventConfigHistoryById:: Trying to get the versions of the Event Configuration By Id : {}", id);
+    Handler<AsyncResult<Response>> handler = metrics.timed("getEventConfigHistoryById", asyncResultHandler);
+    if (!EventConfigHelper.isUuid(id)) {
+      handler.handle(Future.succeededFuture(GetEventConfigHistoryByIdResponse.respond200WithApplicationJson(
+        new EventConfigHistory().withTotalRecords(0))));
+      return;
+    }
+    String from = " FROM " + PostgresClient.convertToPsqlStandard(tenantId) + "." + EventConfigVersions.HISTORY
+      + " WHERE config_id = $1";
+    UUID configId = UUID.fromString(id);
+    db("getEventConfigHistoryById", () -> read("SELECT " + EventConfigVersions.VERSION_JSON
+          + " AS jsonb, count(*) OVER () AS total_records" + from + " ORDER BY version LIMIT $2 OFFSET $3",
+        Tuple.of(configId, limit, offset))
+      .compose(rows -> {
+        List<EventConfigVersion> versions = new ArrayList<>(rows.size());
+        int totalRecords = 0;
+        for (Row row : rows) {
+          versions.add(row.getJsonObject("jsonb").mapTo(EventConfigVersion.class));
+          totalRecords = row.getInteger("total_records");
+        }
+        if (versions.isEmpty() && offset > 0) {
+          // the page is beyond the last version, the window count is not available
+          return read("SELECT count(*)" + from, Tuple.of(configId))
+            .map(countRows -> new EventConfigHistory().withTotalRecords(countRows.iterator().next().getInteger(0)));
+        }
+        return Future.succeededFuture(new EventConfigHistory().withVersions(versions).withTotalRecords(totalRecords));
+      }))
+      .map(GetEventConfigHistoryByIdResponse::respond200WithApplicationJson)
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException)
+      .onComplete(handler);
+  }
+
+  private Future<Response> getByIdResponse(String id, Map<String, String> okapiHeaders, Context vertxContext) {
+    if (!readReplica.useReader(tenantId)) {
+      return Future.future(promise -> PgUtil.getById(EVENT_CONFIGS, EventConfigEntity.class, id, okapiHeaders,
+        vertxContext, GetEventConfigByIdResponse.class, promise::handle));
+    }
+    if (!EventConfigHelper.isUuid(id)) {
+      return Future.succeededFuture(GetEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND));
+    }
+    String sql = "SELECT jsonb FROM " + PostgresClient.convertToPsqlStandard(tenantId) + "." + EVENT_CONFIGS
+      + " WHERE id = $1";
+    return read(sql, Tuple.of(UUID.fromString(id)))
+      .map(rows -> rows.size() == 0
+        ? GetEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND)
+        : GetEventConfigByIdResponse.respond200WithApplicationJson(
+            rows.iterator().next().getJsonObject("jsonb").mapTo(EventConfigEntity.class)))
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException);
   }
 
   @Override
   public void deleteEventConfigById(String id, String lang, Map<String, String> okapiHeaders,
                                     Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
     logger.debug("deleteEventConfigById:: Trying to delete the Event Configuration By Id : {}",id);
-    PgUtil.deleteById(EVENT_CONFIGS, id, okapiHeaders, vertxContext, DeleteEventConfigByIdResponse.class, asyncResultHandler);
+    Handler<AsyncResult<Response>> handler = metrics.timed("deleteEventConfigById", asyncResultHandler);
+    if (!EventConfigHelper.isUuid(id)) {
+      handler.handle(Future.succeededFuture(DeleteEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND)));
+      return;
+    }
+    String sql = "DELETE FROM " + PostgresClient.convertToPsqlStandard(tenantId) + "." + EVENT_CONFIGS
+      + " WHERE id = $1 RETURNING jsonb->>'name' AS name";
+    db("deleteEventConfigById",
+        () -> write(List.of(id),
+          () -> PostgresClient.getInstance(vertx, tenantId).execute(sql, Tuple.of(UUID.fromString(id)))))
+      .onComplete(x -> afterCommit())
+      .map(rows -> {
+        if (rows.rowCount() == 0) {
+          return DeleteEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND);
+        }
+        EventConfigChanges.publish(vertx, tenantId, new EventConfigChange()
+          .withAction(EventConfigChange.Action.DELETED)
+          .withId(id)
+          .withName(rows.iterator().next().getString("name")));
+        return DeleteEventConfigByIdResponse.respond204();
+      })
+      .map(Response.class::cast)
+      .otherwise(EventConfigHelper::mapException)
+      .onComplete(handler);
   }
 
   @Override
-  public void putEventConfigById(String id, String lang, EventConfigEntity entity, Map<String, String> okapiHeaders,
-                                 Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+  public void putEventConfigById(String id, String lang, String ifMatch, EventConfigEntity entity,
+                                 Map<String, String> okapiHeaders, Handler<AsyncResult<Response>> asyncResultHandler,
+                                 Context vertxContext) {
     logger.debug("putEventConfigById:: Trying to update the Event Configuration By Id : {}",id);
-    PgUtil.put(EVENT_CONFIGS, entity, id, okapiHeaders, vertxContext, PutEventConfigByIdResponse.class, asyncResultHandler);
+    Handler<AsyncResult<Response>> handler = metrics.timed("putEventConfigById", asyncResultHandler);
+    AtomicReference<EventConfigEntity> stored = new AtomicReference<>();
+    validateTemplates(entity.getTemplates(), okapiHeaders, handler, () ->
+      db("putEventConfigById",
+          () -> write(List.of(id), () -> putEventConfig(id, ifMatch, entity, okapiHeaders, stored)))
+        .otherwise(EventConfigHelper::mapException)
+        .onComplete(afterWrite(EventConfigChange.Action.UPDATED, id, entity, stored::get, handler)));
+  }
+
+  /**
+   * Updates the event configuration with one statement that returns the stored row, so that the
+   * published version is the ETag of what a later GET returns. With an ETag the row is locked
+   * and compared first.
+   */
+  private Future<Response> putEventConfig(String id, String ifMatch, EventConfigEntity entity,
+                                          Map<String, String> okapiHeaders,
+                                          AtomicReference<EventConfigEntity> stored) {
+    logger.debug("putEventConfig:: Trying to update the Event Configuration By Id : {}", id);
+    if (!EventConfigHelper.isUuid(id)) {
+      return Future.succeededFuture(PutEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND));
+    }
+    if (entity.getId() == null) {
+      entity.setId(id);
+    } else if (!entity.getId().equals(id)) {
+      return Future.succeededFuture(PutEventConfigByIdResponse.respond400WithTextPlain("Illegal operation: id cannot be changed"));
+    }
+    entity.setMetadata(MetadataUtil.createMetadata(okapiHeaders));
+    String json;
+    try {
+      json = PostgresClient.pojo2JsonObject(entity).encode();
+    } catch (JsonProcessingException e) {
+      return Future.failedFuture(e);
+    }
+    String table = PostgresClient.convertToPsqlStandard(tenantId) + "." + EVENT_CONFIGS;
+    String update = "UPDATE " + table + " SET jsonb = " + EventConfigHelper.keepCreatedMetadata("$2::jsonb", "jsonb")
+      + " WHERE id = $1 RETURNING jsonb";
+    Tuple tuple = Tuple.of(UUID.fromString(id), json);
+    PostgresClient postgresClient = PostgresClient.getInstance(vertx, tenantId);
+    if (ifMatch == null) {
+      return postgresClient.execute(update, tuple)
+        .map(rows -> updated(rows, stored));
+    }
+    return postgresClient.withTrans(conn ->
+      conn.getByIdForUpdate(EVENT_CONFIGS, id, EventConfigEntity.class)
+        .compose(current -> {
+          if (current == null) {
+            return Future.<Response>succeededFuture(PutEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND));
+          }
+          if (!EventConfigHelper.etagMatchesStrong(ifMatch, TaggedEntity.of(current).getEtag())) {
+            logger.debug("putEventConfig:: ETag of Event Configuration {} does not match", id);
+            return Future.succeededFuture(EventConfigHelper.preconditionFailed());
+          }
+          return conn.execute(update, tuple)
+            .map(rows -> updated(rows, stored));
+        }));
+  }
+
+  private static Response updated(RowSet<Row> rows, AtomicReference<EventConfigEntity> stored) {
+    if (rows.size() == 0) {
+      return PutEventConfigByIdResponse.respond404WithTextPlain(NOT_FOUND);
+    }
+    stored.set(rows.iterator().next().getJsonObject("jsonb").mapTo(EventConfigEntity.class));
+    return PutEventConfigByIdResponse.respond204();
+  }
+
+  /**
+   * Runs a write of the event configurations with the ids, this instance publishes their changes
+   * itself so their notifications are not republished.
+   */
+  private <T> Future<T> write(List<String> ids, Supplier<Future<T>> write) {
+    ids.forEach(id -> notifications.writing(tenantId, id));
+    return write.get()
+      .onComplete(x -> ids.forEach(id -> notifications.written(tenantId, id)));
+  }
+
+  /**
+   * Invalidates the tenant's cache and routes its reads to the primary for the read-your-writes
+   * window, call it once a write has completed.
+   */
+  private void afterCommit() {
+    cache.invalidate(tenantId);
+    readReplica.written(tenantId);
+  }
+
+  /**
+   * Runs the write if the templates are valid, otherwise responds with 422 Unprocessable Entity.
+   */
+  private void validateTemplates(List<Template> templates, Map<String, String> okapiHeaders,
+                                 Handler<AsyncResult<Response>> handler, Runnable write) {
+    EventTemplateValidator.getInstance(vertx).validate(templates, okapiHeaders)
+      .onSuccess(errors -> {
+        if (errors == null) {
+          write.run();
+          return;
+        }
+        logger.debug("validateTemplates:: {} invalid templates", errors.getErrors().size());
+        handler.handle(Future.succeededFuture(EventConfigHelper.validationFailed(errors)));
+      })
+      .onFailure(e -> handler.handle(Future.succeededFuture(EventConfigHelper.mapException(e))));
+  }
+
+  /**
+   * Runs the database operation within the tenant's query limit and records its time.
+   */
+  private <T> Future<T> db(String operation, Supplier<Future<T>> query) {
+    return metrics.timeDb(operation, () -> limiter.execute(tenantId, query));
+  }
+
+  /**
+   * Executes a read-only statement, on the read replica if configured.
+   */
+  private Future<RowSet<Row>> read(String sql, Tuple tuple) {
+    return readReplica.execute(vertx, tenantId, sql, tuple);
+  }
+
+  /**
+   * Executes a read-only statement generated for a CQL query, recording it if it is slow.
+   * The {@code EXPLAIN} of a slow query runs within the tenant's query limit like any other query.
+   */
+  private Future<RowSet<Row>> read(String statement, String cql, String sql, Tuple tuple) {
+    return slowQueries.execute(tenantId, statement, cql, sql, tuple, this::read,
+      (explainSql, explainTuple) -> db("explainSlowQuery", () -> read(explainSql, explainTuple)));
+  }
+
+  /**
+   * Invalidates the tenant's cache once a create or update completed and publishes the change
+   * if it has been committed. The version is the ETag of the stored configuration, the created
+   * one of the response or the one {@code stored} returns.
+   */
+  private Handler<AsyncResult<Response>> afterWrite(EventConfigChange.Action action, String id,
+                                                    EventConfigEntity entity, Supplier<EventConfigEntity> stored,
+                                                    Handler<AsyncResult<Response>> asyncResultHandler) {
+    return ar -> {
+      afterCommit();
+      if (ar.succeeded() && ar.result().getStatus() < 300) {
+        EventConfigEntity storedEntity = ar.result().getEntity() instanceof EventConfigEntity created
+          ? created
+          : stored.get();
+        EventConfigChange change = new EventConfigChange()
+          .withAction(action)
+          .withId(entity.getId() != null ? entity.getId() : id)
+          .withName(entity.getName());
+        if (storedEntity != null) {
+          change.withId(storedEntity.getId()).withVersion(TaggedEntity.of(storedEntity).getEtag());
+        }
+        EventConfigChanges.publish(vertx, tenantId, change);
+      }
+      asyncResultHandler.handle(ar);
+    };
   }
 }
@@ -0,0 +1,40 @@
+package org.folio.rest.impl;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.impl.util.EventConfigMetrics;
+import org.folio.rest.impl.util.SlowQueryLog;
+import org.folio.rest.jaxrs.resource.EventConfigAdmin;
+import org.folio.rest.tools.utils.TenantTool;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+public class EventConfigAdminAPI implements EventConfigAdmin {
+
+  private static final Logger logger = LogManager.getLogger(EventConfigAdminAPI.class);
+
+  @Override
+  public void getEventConfigAdminMetrics(Map<String, String> okapiHeaders,
+                                         Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    logger.debug("getEventConfigAdminMetrics:: Scraping metrics");
+    asyncResultHandler.handle(Future.succeededFuture(
+      GetEventConfigAdminMetricsResponse.respond200WithTextPlain(EventConfigMetrics.getInstance().scrape())));
+  }
+
+  @Override
+  public void getEventConfigAdminSlowQueries(int limit, Map<String, String> okapiHeaders,
+                                             Handler<AsyncResult<Response>> asyncResultHandler, Context vertxContext) {
+    String tenantId = TenantTool.tenantId(okapiHeaders);
+    logger.debug("getEventConfigAdminSlowQueries:: Getting slow queries of tenant: {}", tenantId);
+    asyncResultHandler.handle(Future.succeededFuture(
+      GetEventConfigAdminSlowQueriesResponse.respond200WithApplicationJson(
+        SlowQueryLog.getInstance().top(tenantId, limit))));
+  }
+}
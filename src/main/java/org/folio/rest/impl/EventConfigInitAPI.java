@@ -0,0 +1,89 @@
+package org.folio.rest.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.impl.util.EventConfigNotifications;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.resource.interfaces.InitAPI;
+import org.folio.rest.tools.utils.ModuleName;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Starts listening for event configuration changes of other module instances, unless
+ * {@code EVENT_CONFIG_NOTIFY} is {@code false}, and then, if {@code EVENT_CONFIG_WARMUP} is
+ * {@code true}, warms up the event configurations of every tenant the module is enabled for.
+ * The module reports ready once both are done, the listener starts first so that no change
+ * made during the warm-up is missed. Both run once per JVM, verticle instances deployed with
+ * {@code -instances} share them.
+ * <p>
+ * A failed warm-up or connection of the listener is logged and does not prevent the module
+ * from starting; the listener keeps reconnecting.
+ */
+public class EventConfigInitAPI implements InitAPI {
+  private static final Logger logger = LogManager.getLogger(EventConfigInitAPI.class);
+
+  public static final String WARMUP_ENV = "EVENT_CONFIG_WARMUP";
+
+  private static Future<Void> sharedWarmUp;
+
+  static boolean isWarmUpEnabled() {
+    return Boolean.parseBoolean(System.getenv().getOrDefault(WARMUP_ENV, "false"));
+  }
+
+  @Override
+  public void init(Vertx vertx, Context context, Handler<AsyncResult<Boolean>> handler) {
+    listen(vertx)
+      .compose(x -> isWarmUpEnabled() ? warmUpOnce(vertx) : Future.succeededFuture())
+      // the shared warm-up may complete on the context of another verticle instance
+      .onComplete(x -> context.runOnContext(v -> handler.handle(Future.succeededFuture(true))));
+  }
+
+  private Future<Void> listen(Vertx vertx) {
+    if (!EventConfigNotifications.isEnabled()) {
+      return Future.succeededFuture();
+    }
+    return EventConfigNotifications.getInstance()
+      .start(vertx, PostgresClient.getInstance(vertx).getConnectionConfig())
+      .recover(e -> {
+        logger.warn("listen:: Listening for Event Configuration changes failed, retrying", e);
+        return Future.succeededFuture();
+      });
+  }
+
+  /**
+   * Starts the warm-up on the first call, later calls return the same future.
+   */
+  private static synchronized Future<Void> warmUpOnce(Vertx vertx) {
+    if (sharedWarmUp == null) {
+      sharedWarmUp = warmUp(vertx);
+    }
+    return sharedWarmUp;
+  }
+
+  private static Future<Void> warmUp(Vertx vertx) {
+    String suffix = "_" + ModuleName.getModuleName();
+    String sql = "SELECT nspname FROM pg_namespace WHERE right(nspname, $1) = $2";
+    return PostgresClient.getInstance(vertx).execute(sql, Tuple.of(suffix.length(), suffix))
+      .compose(rows -> {
+        List<Future<Void>> warmUps = new ArrayList<>(rows.size());
+        rows.forEach(row -> {
+          String schema = row.getString("nspname");
+          String tenantId = schema.substring(0, schema.length() - suffix.length());
+          warmUps.add(new EventConfigAPIs(vertx, tenantId).warmUp());
+        });
+        return Future.join(warmUps);
+      })
+      .<Void>mapEmpty()
+      .onFailure(e -> logger.warn("warmUp:: Warm-up of Event Configurations failed", e))
+      .recover(e -> Future.succeededFuture());
+  }
+}
@@ -0,0 +1,57 @@
+package org.folio.rest.impl;
+
+import java.util.Map;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.annotations.Validate;
+import org.folio.rest.impl.util.EventConfigCache;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.tools.utils.TenantTool;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Invalidates the tenant's cached event configurations whenever the tenant is initialized,
+ * upgraded or purged: the populate scripts rewrite rows and dropping the schema fires no
+ * trigger, so neither sends a change notification. Then warms up the tenant's event
+ * configurations, if {@code EVENT_CONFIG_WARMUP} is {@code true}, so that the tenant job
+ * completes only after it.
+ */
+public class EventConfigTenantAPI extends TenantAPI {
+  private static final Logger logger = LogManager.getLogger(EventConfigTenantAPI.class);
+
+  @Validate
+  @Override
+  public void postTenant(TenantAttributes attributes, Map<String, String> headers,
+                         Handler<AsyncResult<Response>> handler, Context context) {
+    String tenantId = TenantTool.tenantId(headers);
+    super.postTenant(attributes, headers, ar -> {
+      if (attributes.getModuleTo() == null) {
+        logger.debug("postTenant:: Invalidating Event Configurations of disabled tenant: {}", tenantId);
+        EventConfigCache.getInstance().invalidate(tenantId);
+      }
+      handler.handle(ar);
+    }, context);
+  }
+
+  @Override
+  Future<Integer> loadData(TenantAttributes attributes, String tenantId, Map<String, String> headers,
+                           Context vertxContext) {
+    return super.loadData(attributes, tenantId, headers, vertxContext)
+      .onComplete(x -> EventConfigCache.getInstance().invalidate(tenantId))
+      .compose(loaded -> {
+        if (!EventConfigInitAPI.isWarmUpEnabled() || attributes.getModuleTo() == null) {
+          return Future.succeededFuture(loaded);
+        }
+        return new EventConfigAPIs(vertxContext.owner(), tenantId).warmUp()
+          .onFailure(e -> logger.warn("loadData:: Warm-up of Event Configurations failed for tenant: {}", tenantId, e))
+          .transform(x -> Future.succeededFuture(loaded));
+      });
+  }
+}
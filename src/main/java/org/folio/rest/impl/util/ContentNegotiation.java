@@ -0,0 +1,179 @@
+package org.folio.rest.impl.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Representation of a response body selected by the {@code Accept} and {@code Accept-Encoding}
+ * request headers: JSON, CBOR or Smile, optionally compressed with gzip or deflate. The
+ * representation and coding with the highest quality ({@code q}) are selected, JSON and no
+ * compression on ties.
+ * <p>
+ * Each representation has its own entity tag, derived from the tag of the JSON representation.
+ */
+public final class ContentNegotiation {
+
+  public static final String APPLICATION_CBOR = "application/cbor";
+  public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+  private static final String GZIP = "gzip";
+  private static final String DEFLATE = "deflate";
+  private static final String IDENTITY = "identity";
+  private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+  /**
+   * Entities whose JSON is below this size are not compressed, the framing would outweigh the savings.
+   */
+  static final int MIN_COMPRESSION_SIZE = 1024;
+
+  private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+  private static final ObjectMapper SMILE_MAPPER = new SmileMapper();
+
+  private final String mediaType;
+  private final String contentEncoding;
+
+  private ContentNegotiation(String mediaType, String contentEncoding) {
+    this.mediaType = mediaType;
+    this.contentEncoding = contentEncoding;
+  }
+
+  public static ContentNegotiation of(String accept, String acceptEncoding) {
+    Map<String, Double> accepted = qualities(accept);
+    double jsonWildcard = Math.max(accepted.getOrDefault("*/*", 0.0), accepted.getOrDefault("application/*", 0.0));
+    String mediaType = select(accepted, jsonWildcard, MediaType.APPLICATION_JSON, APPLICATION_CBOR, APPLICATION_SMILE);
+    Map<String, Double> acceptedEncodings = qualities(acceptEncoding);
+    // identity is acceptable unless excluded, but the listed codings are preferred
+    double identity = acceptedEncodings.getOrDefault("*", Double.MIN_VALUE);
+    String contentEncoding = select(acceptedEncodings, identity, IDENTITY, GZIP, DEFLATE);
+    return new ContentNegotiation(mediaType, IDENTITY.equals(contentEncoding) ? null : contentEncoding);
+  }
+
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Responds with the entity in this representation, or with 304 Not Modified if the
+   * {@code If-None-Match} header matches the representation's entity tag.
+   */
+  public Response respond(TaggedEntity<?> entity, String ifNoneMatch) {
+    boolean compressed = contentEncoding != null && entity.getJson().length() >= MIN_COMPRESSION_SIZE;
+    String etag = etag(entity.getEtag(), compressed);
+    if (EventConfigHelper.etagMatches(ifNoneMatch, etag)) {
+      return Response.status(Response.Status.NOT_MODIFIED.getStatusCode())
+        .header(HttpHeaders.ETAG, etag)
+        .header(HttpHeaders.VARY, VARY)
+        .build();
+    }
+    Object body;
+    if (compressed) {
+      body = compress(encode(entity));
+    } else {
+      body = mediaType.equals(MediaType.APPLICATION_JSON) ? entity.getJson() : encode(entity);
+    }
+    Response.ResponseBuilder builder = Response.ok(body, mediaType)
+      .header(HttpHeaders.ETAG, etag)
+      .header(HttpHeaders.VARY, VARY);
+    if (compressed) {
+      builder.header(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+    }
+    return builder.build();
+  }
+
+  private byte[] encode(TaggedEntity<?> entity) {
+    try {
+      return switch (mediaType) {
+        case APPLICATION_CBOR -> CBOR_MAPPER.writeValueAsBytes(entity.getEntity());
+        case APPLICATION_SMILE -> SMILE_MAPPER.writeValueAsBytes(entity.getEntity());
+        default -> entity.getJson().getBytes(StandardCharsets.UTF_8);
+      };
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String etag(String jsonEtag, boolean compressed) {
+    String suffix = mediaType.equals(MediaType.APPLICATION_JSON) ? ""
+      : "-" + mediaType.substring(mediaType.lastIndexOf('/') + 1);
+    if (compressed) {
+      suffix += "-" + contentEncoding;
+    }
+    return suffix.isEmpty() ? jsonEtag : jsonEtag.substring(0, jsonEtag.length() - 1) + suffix + '"';
+  }
+
+  private byte[] compress(byte[] body) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4);
+    try (OutputStream out = GZIP.equals(contentEncoding) ? new GZIPOutputStream(bytes) : new DeflaterOutputStream(bytes)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Returns the candidate with the highest quality. The first candidate is the default: it is
+   * selected if no other candidate is acceptable, and wins ties if the header lists it. If it is not
+   * listed, its quality is {@code defaultQuality}, from wildcards, and listed candidates win ties.
+   */
+  private static String select(Map<String, Double> qualities, double defaultQuality, String... candidates) {
+    String best = candidates[0];
+    Double listed = qualities.get(best);
+    double bestQuality = listed != null ? listed : defaultQuality;
+    boolean bestWinsTies = listed != null;
+    for (int i = 1; i < candidates.length; i++) {
+      double quality = qualities.getOrDefault(candidates[i], 0.0);
+      if (quality > bestQuality || quality > 0 && quality == bestQuality && !bestWinsTies) {
+        best = candidates[i];
+        bestQuality = quality;
+        bestWinsTies = true;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the quality of each value of the header, the first one if a value is listed twice.
+   */
+  private static Map<String, Double> qualities(String header) {
+    if (header == null || header.isBlank()) {
+      return Map.of();
+    }
+    Map<String, Double> qualities = new HashMap<>();
+    for (String element : header.toLowerCase(Locale.ROOT).split(",")) {
+      String[] parts = element.split(";");
+      qualities.putIfAbsent(parts[0].trim(), quality(parts));
+    }
+    return qualities;
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,73 @@
+package org.folio.rest.impl.util;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.cql2pgjson.CQL2PgJSON;
+import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+
+/**
+ * Translates CQL queries on the event configurations to SQL with a single shared
+ * {@link CQL2PgJSON} instance and keeps the most recently used translations.
+ * <p>
+ * Only the WHERE and ORDER BY fragments are cached, paging is bound by the caller, so the
+ * same query text hits the cache regardless of offset and limit. Invalid queries are not
+ * cached and fail with the {@link QueryValidationException} of every translation.
+ */
+public class CqlTranslator {
+  private static final Logger logger = LogManager.getLogger(CqlTranslator.class);
+
+  public static final String CACHE_SIZE_ENV = "EVENT_CONFIG_CQL_CACHE_SIZE";
+  private static final int DEFAULT_CACHE_SIZE = 512;
+  private static final String EVENT_CONFIGS_JSONB = "event_configurations.jsonb";
+
+  private static final CqlTranslator INSTANCE = new CqlTranslator(EVENT_CONFIGS_JSONB,
+    Integer.parseInt(System.getenv().getOrDefault(CACHE_SIZE_ENV, String.valueOf(DEFAULT_CACHE_SIZE))));
+
+  private final CQL2PgJSON cql2PgJson;
+  private final int maxSize;
+  private final Map<String, SqlSelect> translations;
+
+  public CqlTranslator(String field, int maxSize) {
+    try {
+      this.cql2PgJson = new CQL2PgJSON(field);
+    } catch (FieldException e) {
+      throw new IllegalArgumentException(e);
+    }
+    this.maxSize = maxSize;
+    this.translations = Collections.synchronizedMap(new LruMap<>(Math.max(maxSize, 0)));
+  }
+
+  public static CqlTranslator getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the shared translator, for APIs that need a {@link org.folio.rest.persist.cql.CQLWrapper}.
+   */
+  public CQL2PgJSON getCql2PgJson() {
+    return cql2PgJson;
+  }
+
+  /**
+   * Returns the WHERE and ORDER BY fragments of the query.
+   */
+  public SqlSelect toSql(String query) throws QueryValidationException {
+    if (maxSize <= 0) {
+      return cql2PgJson.toSql(query);
+    }
+    SqlSelect sqlSelect = translations.get(query);
+    EventConfigMetrics.getInstance().cacheAccess("cql", sqlSelect != null);
+    if (sqlSelect != null) {
+      return sqlSelect;
+    }
+    logger.debug("toSql:: Translating CQL query: {}", query);
+    sqlSelect = cql2PgJson.toSql(query);
+    translations.put(query, sqlSelect);
+    return sqlSelect;
+  }
+}
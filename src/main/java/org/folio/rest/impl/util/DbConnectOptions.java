@@ -0,0 +1,43 @@
+package org.folio.rest.impl.util;
+
+import java.util.Set;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.ClientSSLOptions;
+import io.vertx.core.net.PemTrustOptions;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.SslMode;
+
+/**
+ * Builds the options of connections the module opens next to RMB's pools, like the
+ * {@code LISTEN} connection and the read replica pools, from RMB's connection configuration,
+ * so that they connect the way RMB does: with {@code DB_SERVER_PEM} set, over TLS 1.3 with the
+ * server certificate and host name verified.
+ */
+public final class DbConnectOptions {
+
+  private DbConnectOptions() {}
+
+  /**
+   * @param config connection configuration of RMB's {@code PostgresClient}
+   */
+  public static PgConnectOptions of(JsonObject config) {
+    PgConnectOptions connectOptions = new PgConnectOptions()
+      .setHost(config.getString("host"))
+      .setPort(config.getInteger("port"))
+      .setDatabase(config.getString("database"))
+      .setUser(config.getString("username"))
+      .setPassword(config.getString("password"));
+    String serverPem = config.getString("server_pem");
+    if (serverPem != null) {
+      connectOptions
+        .setSslMode(SslMode.VERIFY_FULL)
+        .setSslOptions(new ClientSSLOptions()
+          .setHostnameVerificationAlgorithm("HTTPS")
+          .setTrustOptions(new PemTrustOptions().addCertValue(Buffer.buffer(serverPem)))
+          .setEnabledSecureTransportProtocols(Set.of("TLSv1.3")));
+    }
+    return connectOptions;
+  }
+}
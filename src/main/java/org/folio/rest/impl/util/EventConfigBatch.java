@@ -0,0 +1,356 @@
+package org.folio.rest.impl.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.BatchResult;
+import org.folio.rest.jaxrs.model.EventConfigBatchResult;
+import org.folio.rest.jaxrs.model.EventConfigEntity;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.folio.rest.jaxrs.model.Metadata;
+import org.folio.rest.jaxrs.model.Template;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PgExceptionUtil;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.MetadataUtil;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Upserts a batch of event configurations in one transaction, with a number of statements
+ * independent of the batch size: one that reads the stored configurations the batch touches,
+ * one that moves names out of the way if entries rename each other, and one that upserts.
+ * <p>
+ * Names are checked against the state after the batch: an entry fails if its name is used by an
+ * earlier entry of the batch, or by a stored configuration that is not renamed by the batch, so
+ * renames and swaps within a batch succeed. Entries with templates rejected by the
+ * {@link EventTemplateValidator} fail as well; the templates of all entries are looked up at once
+ * before the transaction. If a concurrent write takes a name in between, the upsert is rolled back
+ * to a savepoint and the batch is checked again, the entries clashing with it fail.
+ * <p>
+ * The metadata is populated from the Okapi headers like for single writes; updates keep the
+ * created date and user of the stored configuration.
+ */
+public class EventConfigBatch {
+  private static final Logger logger = LogManager.getLogger(EventConfigBatch.class);
+
+  /**
+   * Setting that tells the history trigger to skip the temporary renames.
+   */
+  public static final String RENAMING_SETTING = "mod_event_config.renaming";
+  private static final int MAX_ATTEMPTS = 3;
+
+  private static final String STORED_NAMES_SQL =
+    "WITH input AS ("
+      + " SELECT ord, id, lower(%1$s.f_unaccent(name)) AS name_key"
+      + " FROM unnest($1::int[], $2::uuid[], $3::text[]) AS input(ord, id, name))"
+      + " SELECT ord, id, name_key FROM input"
+      + " UNION ALL"
+      + " SELECT NULL, t.id, lower(%1$s.f_unaccent(t.jsonb->>'name')) FROM %1$s.%2$s t"
+      + " WHERE lower(%1$s.f_unaccent(t.jsonb->>'name')) IN (SELECT name_key FROM input)"
+      + "  OR t.id IN (SELECT id FROM input)";
+
+  private static final String RENAME_SQL =
+    "UPDATE %1$s.%2$s SET jsonb = jsonb_set(jsonb, '{name}', to_jsonb('renaming ' || id))"
+      + " WHERE id = ANY($1::uuid[])";
+
+  private static final String UPSERT_SQL =
+    "INSERT INTO %1$s.%2$s AS t (id, jsonb)"
+      + " SELECT id, jsonb::jsonb FROM unnest($1::uuid[], $2::text[]) AS input(id, jsonb)"
+      + " ON CONFLICT (id) DO UPDATE SET jsonb = "
+      + EventConfigHelper.keepCreatedMetadata("EXCLUDED.jsonb", "t.jsonb")
+      + " RETURNING id, jsonb, xmax = 0 AS inserted";
+
+  private final PostgresClient postgresClient;
+  private final String schema;
+  private final String table;
+  private final EventTemplateValidator validator;
+  private final Map<String, String> okapiHeaders;
+  private final Map<String, String> versions = new HashMap<>();
+
+  public EventConfigBatch(PostgresClient postgresClient, String tenantId, String table,
+                          EventTemplateValidator validator, Map<String, String> okapiHeaders) {
+    this.postgresClient = postgresClient;
+    this.schema = PostgresClient.convertToPsqlStandard(tenantId);
+    this.table = table;
+    this.validator = validator;
+    this.okapiHeaders = okapiHeaders;
+  }
+
+  public Future<EventConfigBatchResult> upsert(List<EventEntity> entities) {
+    logger.debug("upsert:: Trying to upsert {} Event Configurations", entities.size());
+    List<BatchResult> results = new ArrayList<>(entities.size());
+    List<Integer> candidates = new ArrayList<>(entities.size());
+    Set<String> ids = new HashSet<>();
+    Metadata metadata = MetadataUtil.createMetadata(okapiHeaders);
+    for (int i = 0; i < entities.size(); i++) {
+      EventEntity entity = entities.get(i);
+      if (entity.getId() == null) {
+        entity.setId(UUID.randomUUID().toString());
+      }
+      entity.setMetadata(metadata);
+      BatchResult result = new BatchResult().withId(entity.getId()).withName(entity.getName());
+      results.add(result);
+      Errors errors = validator.validate(entity.getTemplates());
+      if (!EventConfigHelper.isUuid(entity.getId())) {
+        fail(result, "invalid id");
+      } else if (errors != null) {
+        fail(result, errors.getErrors().get(0).getMessage());
+      } else if (!ids.add(entity.getId().toLowerCase(Locale.ROOT))) {
+        fail(result, "id is used more than once in the batch");
+      } else {
+        candidates.add(i);
+      }
+    }
+    if (candidates.isEmpty()) {
+      return Future.succeededFuture(toBatchResult(results));
+    }
+    return failMissingTemplates(entities, candidates, results)
+      .compose(existing -> {
+        if (existing.isEmpty()) {
+          return Future.succeededFuture();
+        }
+        return postgresClient.withTrans(conn -> conn.execute("SAVEPOINT batch")
+          .compose(x -> attempt(conn, entities, existing, results, 1)));
+      })
+      .map(x -> toBatchResult(results));
+  }
+
+  /**
+   * Looks up the templates of all candidates at once, fails the candidates with a template that
+   * does not exist and returns the others.
+   */
+  private Future<List<Integer>> failMissingTemplates(List<EventEntity> entities, List<Integer> candidates,
+                                                     List<BatchResult> results) {
+    Set<String> templateIds = new HashSet<>();
+    for (Integer ord : candidates) {
+      List<Template> templates = entities.get(ord).getTemplates();
+      if (templates != null) {
+        templates.forEach(template -> templateIds.add(template.getTemplateId()));
+      }
+    }
+    return validator.missing(templateIds, okapiHeaders)
+      .map(missing -> {
+        if (missing.isEmpty()) {
+          return candidates;
+        }
+        Set<String> missingIds = new HashSet<>(missing);
+        List<Integer> existing = new ArrayList<>(candidates.size());
+        for (Integer ord : candidates) {
+          List<Template> templates = entities.get(ord).getTemplates();
+          String missingId = templates == null ? null : templates.stream()
+            .map(Template::getTemplateId)
+            .filter(missingIds::contains)
+            .findFirst()
+            .orElse(null);
+          if (missingId == null) {
+            existing.add(ord);
+          } else {
+            fail(results.get(ord), EventTemplateValidator.TEMPLATE_DOES_NOT_EXIST + ": " + missingId);
+          }
+        }
+        return existing;
+      });
+  }
+
+  private Future<Void> attempt(Conn conn, List<EventEntity> entities, List<Integer> candidates,
+                               List<BatchResult> results, int attempt) {
+    Map<Integer, String> failures = new HashMap<>();
+    return readNames(conn, entities, candidates)
+      .compose(names -> {
+        List<Integer> upserts = names.failClashes(failures);
+        return rename(conn, names.renamed(upserts))
+          .compose(x -> upsert(conn, entities, upserts, results));
+      })
+      .onSuccess(x -> failures.forEach((ord, message) -> fail(results.get(ord), message)))
+      .recover(e -> {
+        if (!PgExceptionUtil.isUniqueViolation(e)) {
+          return Future.failedFuture(e);
+        }
+        return conn.execute("ROLLBACK TO SAVEPOINT batch")
+          .compose(x -> {
+            if (attempt < MAX_ATTEMPTS) {
+              logger.info("attempt:: Name clash with a concurrent write, checking the batch again");
+              return attempt(conn, entities, candidates, results, attempt + 1);
+            }
+            logger.warn("attempt:: Name clashes with concurrent writes after {} attempts", attempt);
+            candidates.forEach(ord -> fail(results.get(ord), "name clashes with a concurrent write"));
+            return Future.succeededFuture();
+          });
+      });
+  }
+
+  private Future<BatchNames> readNames(Conn conn, List<EventEntity> entities, List<Integer> candidates) {
+    Integer[] ords = candidates.toArray(new Integer[0]);
+    UUID[] ids = new UUID[ords.length];
+    String[] names = new String[ords.length];
+    for (int i = 0; i < ords.length; i++) {
+      EventEntity entity = entities.get(ords[i]);
+      ids[i] = UUID.fromString(entity.getId());
+      names[i] = entity.getName();
+    }
+    return conn.execute(String.format(STORED_NAMES_SQL, schema, table), Tuple.of(ords, ids, names))
+      .map(rows -> {
+        BatchNames batchNames = new BatchNames(table);
+        for (Row row : rows) {
+          Integer ord = row.getInteger("ord");
+          if (ord == null) {
+            batchNames.stored(row.getUUID("id"), row.getString("name_key"));
+          } else {
+            batchNames.input(ord, row.getUUID("id"), row.getString("name_key"));
+          }
+        }
+        return batchNames;
+      });
+  }
+
+  private Future<Void> rename(Conn conn, List<UUID> ids) {
+    if (ids.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    logger.debug("rename:: Moving the names of {} Event Configurations renamed by the batch", ids.size());
+    return conn.execute("SELECT set_config('" + RENAMING_SETTING + "', 'on', true)")
+      .compose(x -> conn.execute(String.format(RENAME_SQL, schema, table), Tuple.of(ids.toArray(new UUID[0]))))
+      .compose(x -> conn.execute("SELECT set_config('" + RENAMING_SETTING + "', 'off', true)"))
+      .mapEmpty();
+  }
+
+  private Future<Void> upsert(Conn conn, List<EventEntity> entities, List<Integer> ords, List<BatchResult> results) {
+    if (ords.isEmpty()) {
+      return Future.succeededFuture();
+    }
+    UUID[] ids = new UUID[ords.size()];
+    String[] jsons = new String[ords.size()];
+    Map<UUID, BatchResult> resultsById = new HashMap<>();
+    for (int i = 0; i < ids.length; i++) {
+      EventEntity entity = entities.get(ords.get(i));
+      ids[i] = UUID.fromString(entity.getId());
+      try {
+        jsons[i] = PostgresClient.pojo2JsonObject(entity).encode();
+      } catch (JsonProcessingException e) {
+        return Future.failedFuture(e);
+      }
+      resultsById.put(ids[i], results.get(ords.get(i)));
+    }
+    return conn.execute(String.format(UPSERT_SQL, schema, table), Tuple.of(ids, jsons))
+      .map(rows -> {
+        for (Row row : rows) {
+          versions.put(row.getUUID("id").toString(),
+            TaggedEntity.of(row.getJsonObject("jsonb").mapTo(EventConfigEntity.class)).getEtag());
+          resultsById.get(row.getUUID("id")).setStatus(row.getBoolean("inserted")
+            ? BatchResult.Status.CREATED
+            : BatchResult.Status.UPDATED);
+        }
+        return null;
+      });
+  }
+
+  /**
+   * Returns the ETag of the stored event configuration of a created or updated entry.
+   */
+  public String getVersion(String id) {
+    return versions.get(id.toLowerCase(Locale.ROOT));
+  }
+
+  private static void fail(BatchResult result, String message) {
+    result.withStatus(BatchResult.Status.FAILED).withMessage(message);
+  }
+
+  private static EventConfigBatchResult toBatchResult(List<BatchResult> results) {
+    return new EventConfigBatchResult()
+      .withBatchResults(results)
+      .withTotalRecords(results.size());
+  }
+
+  /**
+   * Normalized names of the entries of a batch and of the stored configurations they touch.
+   */
+  private static final class BatchNames {
+    private final String table;
+    private final Map<Integer, UUID> idByOrd = new TreeMap<>();
+    private final Map<Integer, String> nameByOrd = new HashMap<>();
+    private final Map<UUID, String> storedNameById = new HashMap<>();
+    private final Map<String, UUID> storedIdByName = new HashMap<>();
+
+    private BatchNames(String table) {
+      this.table = table;
+    }
+
+    private void input(int ord, UUID id, String name) {
+      idByOrd.put(ord, id);
+      nameByOrd.put(ord, name);
+    }
+
+    private void stored(UUID id, String name) {
+      storedNameById.put(id, name);
+      storedIdByName.put(name, id);
+    }
+
+    /**
+     * Adds the entries whose name clashes after the batch to the failures and returns the others.
+     * A failed entry keeps the stored name of its configuration, which may make other entries
+     * clash, so the check repeats until no more entries fail.
+     */
+    private List<Integer> failClashes(Map<Integer, String> failures) {
+      boolean failed = true;
+      while (failed) {
+        failed = false;
+        Set<UUID> upsertIds = new HashSet<>();
+        Set<String> batchNames = new HashSet<>();
+        for (Map.Entry<Integer, UUID> entry : idByOrd.entrySet()) {
+          if (failures.containsKey(entry.getKey())) {
+            continue;
+          }
+          if (batchNames.add(nameByOrd.get(entry.getKey()))) {
+            upsertIds.add(entry.getValue());
+          } else {
+            failures.put(entry.getKey(), "name is used more than once in the batch");
+            failed = true;
+          }
+        }
+        for (Map.Entry<Integer, UUID> entry : idByOrd.entrySet()) {
+          if (failures.containsKey(entry.getKey())) {
+            continue;
+          }
+          UUID holder = storedIdByName.get(nameByOrd.get(entry.getKey()));
+          if (holder != null && !holder.equals(entry.getValue()) && !upsertIds.contains(holder)) {
+            failures.put(entry.getKey(), "name already exists in table " + table);
+            failed = true;
+          }
+        }
+      }
+      return idByOrd.keySet().stream().filter(ord -> !failures.containsKey(ord)).toList();
+    }
+
+    /**
+     * Returns the ids of the upserted configurations whose stored name another upserted entry takes,
+     * they have to give up their name before the upsert as the unique index is checked for each row.
+     */
+    private List<UUID> renamed(List<Integer> upserts) {
+      Set<UUID> upsertIds = new HashSet<>();
+      upserts.forEach(ord -> upsertIds.add(idByOrd.get(ord)));
+      List<UUID> renamed = new ArrayList<>();
+      for (Integer ord : upserts) {
+        UUID holder = storedIdByName.get(nameByOrd.get(ord));
+        if (holder != null && !holder.equals(idByOrd.get(ord)) && upsertIds.contains(holder)) {
+          renamed.add(holder);
+        }
+      }
+      return renamed;
+    }
+  }
+}
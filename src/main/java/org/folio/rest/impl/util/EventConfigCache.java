@@ -0,0 +1,124 @@
+package org.folio.rest.impl.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.EventConfigEntity;
+import org.folio.rest.jaxrs.model.EventEntity;
+
+/**
+ * Bounded per-tenant cache of event configurations, keyed by id and by name.
+ * <p>
+ * Entries are evicted in least-recently-used order once a tenant holds more than
+ * {@code EVENT_CONFIG_CACHE_SIZE} entries per key type. Every write invalidates all
+ * entries of the tenant; a read that started before the write is not allowed to
+ * repopulate the cache with the stale result (see {@link #generation(String)}).
+ */
+public class EventConfigCache {
+  private static final Logger logger = LogManager.getLogger(EventConfigCache.class);
+
+  public static final String CACHE_SIZE_ENV = "EVENT_CONFIG_CACHE_SIZE";
+  private static final int DEFAULT_CACHE_SIZE = 256;
+
+  private static final EventConfigCache INSTANCE = new EventConfigCache(
+    Integer.parseInt(System.getenv().getOrDefault(CACHE_SIZE_ENV, String.valueOf(DEFAULT_CACHE_SIZE))));
+
+  private final int maxSize;
+  private final Map<String, TenantEntries> tenants = new ConcurrentHashMap<>();
+
+  public EventConfigCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public static EventConfigCache getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Returns the current generation of the tenant's entries. Capture it before reading
+   * from the database and hand it back to the {@code put} methods.
+   */
+  public long generation(String tenantId) {
+    return entries(tenantId).generation.get();
+  }
+
+  public TaggedEntity<EventConfigEntity> getById(String tenantId, String id) {
+    if (!isEnabled()) {
+      return null;
+    }
+    return entries(tenantId).byId.get(id);
+  }
+
+  public void putById(String tenantId, long generation, TaggedEntity<EventConfigEntity> entity) {
+    if (!isEnabled() || entity == null || entity.getEntity().getId() == null) {
+      return;
+    }
+    TenantEntries entries = entries(tenantId);
+    synchronized (entries) {
+      if (entries.generation.get() == generation) {
+        entries.byId.put(entity.getEntity().getId(), entity);
+      }
+    }
+  }
+
+  /**
+   * Returns the cached entities matching the exact name, an empty list if the name is
+   * known not to exist, or {@code null} if the name is not cached.
+   */
+  public List<EventEntity> getByName(String tenantId, String name) {
+    if (!isEnabled()) {
+      return null;
+    }
+    return entries(tenantId).byName.get(name);
+  }
+
+  public void putByName(String tenantId, long generation, String name, List<EventEntity> entities) {
+    if (!isEnabled()) {
+      return;
+    }
+    TenantEntries entries = entries(tenantId);
+    synchronized (entries) {
+      if (entries.generation.get() == generation) {
+        entries.byName.put(name, Collections.unmodifiableList(entities));
+      }
+    }
+  }
+
+  public void invalidate(String tenantId) {
+    logger.debug("invalidate:: Invalidating event configuration cache for tenant: {}", tenantId);
+    TenantEntries entries = entries(tenantId);
+    synchronized (entries) {
+      entries.generation.incrementAndGet();
+      entries.byId.clear();
+      entries.byName.clear();
+    }
+  }
+
+  public void invalidateAll() {
+    tenants.keySet().forEach(this::invalidate);
+  }
+
+  private TenantEntries entries(String tenantId) {
+    return tenants.computeIfAbsent(tenantId, key -> new TenantEntries(maxSize));
+  }
+
+  private static final class TenantEntries {
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, TaggedEntity<EventConfigEntity>> byId;
+    private final Map<String, List<EventEntity>> byName;
+
+    private TenantEntries(int maxSize) {
+      this.byId = Collections.synchronizedMap(new LruMap<>(maxSize));
+      this.byName = Collections.synchronizedMap(new LruMap<>(maxSize));
+    }
+  }
+}
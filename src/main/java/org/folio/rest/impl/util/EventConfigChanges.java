@@ -0,0 +1,68 @@
+package org.folio.rest.impl.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.EventConfigChange;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Publishes committed event configuration changes on the Vert.x event bus and relays
+ * them to server-sent events subscribers.
+ * <p>
+ * Messages are published to {@link #ADDRESS} with the tenant in the {@link #TENANT_HEADER}
+ * header and an {@link EventConfigChange} as JSON body.
+ */
+public class EventConfigChanges {
+  private static final Logger logger = LogManager.getLogger(EventConfigChanges.class);
+
+  public static final String ADDRESS = "mod-event-config.changes";
+  public static final String TENANT_HEADER = "tenant";
+  public static final String TEXT_EVENT_STREAM = "text/event-stream";
+
+  private static final long HEARTBEAT_INTERVAL_MS = 30_000;
+
+  private EventConfigChanges() {}
+
+  public static void publish(Vertx vertx, String tenantId, EventConfigChange change) {
+    logger.debug("publish:: Publishing {} of Event Configuration {}", change.getAction(), change.getId());
+    vertx.eventBus().publish(ADDRESS, JsonObject.mapFrom(change),
+      new DeliveryOptions().addHeader(TENANT_HEADER, tenantId));
+  }
+
+  /**
+   * Writes the tenant's changes to the response as server-sent events until the client
+   * disconnects. A comment line is sent periodically so idle connections are not closed
+   * by proxies.
+   */
+  public static void subscribe(Vertx vertx, String tenantId, HttpServerResponse response) {
+    logger.debug("subscribe:: Subscribing to Event Configuration changes of tenant: {}", tenantId);
+    response.setStatusCode(200)
+      .setChunked(true)
+      .putHeader(HttpHeaders.CONTENT_TYPE, TEXT_EVENT_STREAM)
+      .putHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    MessageConsumer<JsonObject> consumer = vertx.eventBus().consumer(ADDRESS, message -> {
+      if (!tenantId.equals(message.headers().get(TENANT_HEADER)) || response.closed()) {
+        return;
+      }
+      JsonObject change = message.body();
+      response.write("event: " + change.getString("action") + "\ndata: " + change.encode() + "\n\n");
+    });
+    long heartbeat = vertx.setPeriodic(HEARTBEAT_INTERVAL_MS, id -> {
+      if (!response.closed()) {
+        response.write(":\n\n");
+      }
+    });
+    response.closeHandler(v -> {
+      logger.debug("subscribe:: Client of tenant {} unsubscribed from Event Configuration changes", tenantId);
+      vertx.cancelTimer(heartbeat);
+      consumer.unregister();
+    });
+    consumer.completion().onSuccess(v -> response.write(":\n\n"));
+  }
+}
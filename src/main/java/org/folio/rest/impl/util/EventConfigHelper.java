@@ -3,31 +3,150 @@ package org.folio.rest.impl.util;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.cql2pgjson.exception.CQL2PgJSONException;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.persist.PgExceptionUtil;
 import org.folio.rest.persist.cql.CQLQueryValidationException;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import java.util.UUID;
 
 public class EventConfigHelper {
   private static final Logger logger = LogManager.getLogger(EventConfigHelper.class);
+  private static final int UNPROCESSABLE_ENTITY = 422;
 
   private EventConfigHelper() {}
 
   public static Response mapException(Throwable throwable) {
-    logger.debug("mapException:: Mapping Exception");
     if (throwable instanceof CQL2PgJSONException ||
       throwable instanceof CQLQueryValidationException) {
-      logger.warn("mapException:: Returning BAD_REQUEST");
+      clientError("invalid_query", "Returning BAD_REQUEST");
       return Response.status(Response.Status.BAD_REQUEST.getStatusCode())
         .type(MediaType.TEXT_PLAIN)
         .entity(throwable.getMessage())
         .build();
     }
-    logger.warn("mapException :: There is a {}",Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase());
+    if (PgExceptionUtil.isUniqueViolation(throwable)) {
+      clientError("unique_violation", "Returning BAD_REQUEST for unique violation");
+      return Response.status(Response.Status.BAD_REQUEST.getStatusCode())
+        .type(MediaType.TEXT_PLAIN)
+        .entity(PgExceptionUtil.getMessage(throwable))
+        .build();
+    }
+    if (throwable instanceof TenantBusyException) {
+      clientError("tenant_busy", "Returning SERVICE_UNAVAILABLE");
+      return Response.status(Response.Status.SERVICE_UNAVAILABLE.getStatusCode())
+        .type(MediaType.TEXT_PLAIN)
+        .header(HttpHeaders.RETRY_AFTER, 1)
+        .entity(throwable.getMessage())
+        .build();
+    }
+    logger.warn("mapException:: Returning INTERNAL_SERVER_ERROR", throwable);
+    EventConfigMetrics.getInstance().error("internal_server_error");
     return Response.status(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode())
       .type(MediaType.TEXT_PLAIN)
       .entity(Response.Status.INTERNAL_SERVER_ERROR.getReasonPhrase())
       .build();
   }
 
+  /**
+   * Counts an error caused by the request and logs it, sampled as clients can cause it on every request.
+   */
+  private static void clientError(String branch, String message) {
+    EventConfigMetrics.getInstance().error(branch);
+    long suppressed = LogSampler.getInstance().sample(branch);
+    if (suppressed >= 0) {
+      logger.warn("mapException:: {}, {} similar responses suppressed", message, suppressed);
+    }
+  }
+
+  /**
+   * Responds with the JSON representation and its ETag, or with 304 Not Modified if
+   * the {@code If-None-Match} header matches the ETag.
+   */
+  public static Response respondWithETag(TaggedEntity<?> entity, String ifNoneMatch) {
+    if (etagMatches(ifNoneMatch, entity.getEtag())) {
+      logger.debug("respondWithETag:: Returning NOT_MODIFIED");
+      return Response.status(Response.Status.NOT_MODIFIED.getStatusCode())
+        .header(HttpHeaders.ETAG, entity.getEtag())
+        .build();
+    }
+    return Response.ok(entity.getJson(), MediaType.APPLICATION_JSON)
+      .header(HttpHeaders.ETAG, entity.getEtag())
+      .build();
+  }
+
+  /**
+   * Responds with 422 Unprocessable Entity and the errors, like RMB does for schema violations.
+   */
+  public static Response validationFailed(Errors errors) {
+    return Response.status(UNPROCESSABLE_ENTITY)
+      .type(MediaType.APPLICATION_JSON)
+      .entity(errors)
+      .build();
+  }
+
+  public static Response preconditionFailed() {
+    return Response.status(Response.Status.PRECONDITION_FAILED.getStatusCode())
+      .type(MediaType.TEXT_PLAIN)
+      .entity(Response.Status.PRECONDITION_FAILED.getReasonPhrase())
+      .build();
+  }
+
+  /**
+   * Returns whether an {@code If-None-Match} header value matches the ETag, weak validators are
+   * compared by their opaque tag.
+   */
+  public static boolean etagMatches(String header, String etag) {
+    if (header == null || header.isBlank()) {
+      return false;
+    }
+    for (String candidate : header.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag) || (tag.startsWith("W/") && tag.substring(2).equals(etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether an {@code If-Match} header value matches the ETag of the current representation
+   * with the strong comparison of RFC 7232: weak validators never match, and {@code *} matches only
+   * if there is a current representation, that is the ETag is not null.
+   */
+  public static boolean etagMatchesStrong(String header, String etag) {
+    if (header == null || header.isBlank() || etag == null) {
+      return false;
+    }
+    for (String candidate : header.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the SQL expression of the jsonb {@code newJsonb} with the created date and user of its
+   * metadata taken from {@code oldJsonb}, so that updates keep them.
+   */
+  public static String keepCreatedMetadata(String newJsonb, String oldJsonb) {
+    return "jsonb_set(" + newJsonb + ", '{metadata}', coalesce(" + newJsonb + "->'metadata', '{}'::jsonb)"
+      + " || jsonb_strip_nulls(jsonb_build_object("
+      + "'createdDate', " + oldJsonb + "->'metadata'->'createdDate',"
+      + " 'createdByUserId', " + oldJsonb + "->'metadata'->'createdByUserId',"
+      + " 'createdByUsername', " + oldJsonb + "->'metadata'->'createdByUsername')))";
+  }
+
+  public static boolean isUuid(String value) {
+    try {
+      return value != null && value.length() == 36 && UUID.fromString(value) != null;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
 }
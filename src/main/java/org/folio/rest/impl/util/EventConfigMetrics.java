@@ -0,0 +1,164 @@
+package org.folio.rest.impl.util;
+
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.Response;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+/**
+ * Micrometer meters of the event configuration API, scraped in the Prometheus text format
+ * from {@code GET /event-config-admin/metrics}.
+ * <ul>
+ *   <li>{@code event_config_requests_seconds} - latency of each API operation by response status</li>
+ *   <li>{@code event_config_db_seconds} - time spent waiting for the database by operation</li>
+ *   <li>{@code event_config_serialization_seconds} - time spent encoding responses by operation</li>
+ *   <li>{@code event_config_cache_total} - cache lookups by cache and result</li>
+ *   <li>{@code event_config_errors_total} - error responses by {@link EventConfigHelper#mapException} branch</li>
+ *   <li>{@code event_config_tenant_queries} - running and waiting queries of all tenants, see {@link TenantQueryLimiter}</li>
+ *   <li>{@code event_config_tenant_queries_rejected_total} - queries rejected by the per-tenant limit</li>
+ *   <li>{@code event_config_pool_connections} - open and maximum connections of the database pools by pool</li>
+ * </ul>
+ */
+public class EventConfigMetrics {
+
+  public static final String REQUESTS = "event.config.requests";
+  public static final String DB = "event.config.db";
+  public static final String SERIALIZATION = "event.config.serialization";
+  public static final String CACHE = "event.config.cache";
+  public static final String ERRORS = "event.config.errors";
+  public static final String TENANT_QUERIES = "event.config.tenant.queries";
+  public static final String TENANT_QUERIES_REJECTED = "event.config.tenant.queries.rejected";
+  public static final String POOL_CONNECTIONS = "event.config.pool.connections";
+
+  private static final String OPERATION = "operation";
+  private static final String STATUS = "status";
+
+  private static final EventConfigMetrics INSTANCE = new EventConfigMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+
+  private final PrometheusMeterRegistry registry;
+
+  public EventConfigMetrics(PrometheusMeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public static EventConfigMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  public MeterRegistry getRegistry() {
+    return registry;
+  }
+
+  /**
+   * Returns all meters in the Prometheus text exposition format.
+   */
+  public String scrape() {
+    return registry.scrape();
+  }
+
+  /**
+   * Wraps the handler of an API operation to record its latency, tagged with the response status.
+   */
+  public Handler<AsyncResult<Response>> timed(String operation, Handler<AsyncResult<Response>> handler) {
+    Timer.Sample sample = Timer.start(registry);
+    return ar -> {
+      stopRequest(sample, operation, ar.succeeded() ? ar.result().getStatus() : -1);
+      handler.handle(ar);
+    };
+  }
+
+  /**
+   * Starts timing an operation that writes its response directly, see {@link #stopRequest}.
+   */
+  public Timer.Sample startRequest() {
+    return Timer.start(registry);
+  }
+
+  /**
+   * Records the latency of an operation, a negative status denotes a failed handler.
+   */
+  public void stopRequest(Timer.Sample sample, String operation, int status) {
+    sample.stop(Timer.builder(REQUESTS)
+      .tag(OPERATION, operation)
+      .tag(STATUS, status < 0 ? "failed" : String.valueOf(status))
+      .publishPercentileHistogram()
+      .register(registry));
+  }
+
+  /**
+   * Records the time until the database future returned by the supplier completes.
+   */
+  public <T> Future<T> timeDb(String operation, Supplier<Future<T>> query) {
+    Timer.Sample sample = Timer.start(registry);
+    return query.get()
+      .onComplete(x -> sample.stop(Timer.builder(DB)
+        .tag(OPERATION, operation)
+        .publishPercentileHistogram()
+        .register(registry)));
+  }
+
+  public <T> T timeSerialization(String operation, Supplier<T> serialization) {
+    return Timer.builder(SERIALIZATION)
+      .tag(OPERATION, operation)
+      .register(registry)
+      .record(serialization);
+  }
+
+  public void cacheAccess(String cache, boolean hit) {
+    Counter.builder(CACHE)
+      .tag("cache", cache)
+      .tag("result", hit ? "hit" : "miss")
+      .register(registry)
+      .increment();
+  }
+
+  public void error(String branch) {
+    Counter.builder(ERRORS)
+      .tag("branch", branch)
+      .register(registry)
+      .increment();
+  }
+
+  public void tenantQueries(TenantQueryLimiter limiter) {
+    Gauge.builder(TENANT_QUERIES, limiter, TenantQueryLimiter::running)
+      .tag("state", "running")
+      .register(registry);
+    Gauge.builder(TENANT_QUERIES, limiter, TenantQueryLimiter::waiting)
+      .tag("state", "waiting")
+      .register(registry);
+  }
+
+  /**
+   * Counts a query rejected by the per-tenant limit. The count is not tagged with the tenant, as the
+   * metrics are scraped through a tenant's endpoint and must not reveal other tenants.
+   */
+  public void tenantQueryRejected() {
+    Counter.builder(TENANT_QUERIES_REJECTED)
+      .register(registry)
+      .increment();
+  }
+
+  /**
+   * Registers the gauges of a database pool, the open connections are sampled on every scrape.
+   */
+  public void pool(String pool, IntSupplier open, int max) {
+    Gauge.builder(POOL_CONNECTIONS, open, IntSupplier::getAsInt)
+      .tag("pool", pool)
+      .tag("state", "open")
+      .register(registry);
+    Gauge.builder(POOL_CONNECTIONS, () -> max)
+      .tag("pool", pool)
+      .tag("state", "max")
+      .register(registry);
+  }
+}
@@ -0,0 +1,175 @@
+package org.folio.rest.impl.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.EventConfigChange;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+
+/**
+ * Keeps the caches of all module instances consistent: the {@code event_configurations_notify}
+ * trigger sends a {@code NOTIFY} on {@link #CHANNEL} with the tenant and id of every committed
+ * change, and every instance {@code LISTEN}s and invalidates its cache of the tenant. The change
+ * also counts as a write of the tenant for the {@link ReadReplica}, so that reads through this
+ * instance do not go to a lagging replica and cache the configuration as it was before the change.
+ * <p>
+ * Changes made through other instances are republished with {@link EventConfigChanges#publish}, so
+ * that event bus and server-sent events subscribers of this instance see them too. Changes this
+ * instance writes itself are published with their name and version by the write and are not
+ * republished: the ids are recorded with {@link #writing} and {@link #written}, and their
+ * notifications are skipped until {@link #LOCAL_WRITE_GRACE_MS} after the write completed.
+ * <p>
+ * Notifications sent while the connection is down are lost, so all tenants are invalidated
+ * whenever the listener (re)connects.
+ */
+public class EventConfigNotifications {
+  private static final Logger logger = LogManager.getLogger(EventConfigNotifications.class);
+
+  public static final String CHANNEL = "mod_event_config_changes";
+  public static final String NOTIFY_ENV = "EVENT_CONFIG_NOTIFY";
+  private static final long MAX_RECONNECT_DELAY_MS = 30_000;
+  /**
+   * Time after a write of this instance completed during which its notifications may still arrive.
+   */
+  public static final long LOCAL_WRITE_GRACE_MS = 10_000;
+
+  private static final EventConfigNotifications INSTANCE =
+    new EventConfigNotifications(EventConfigCache.getInstance(), ReadReplica.getInstance());
+
+  private final EventConfigCache cache;
+  private final ReadReplica readReplica;
+  private final Map<String, LocalWrite> localWrites = new HashMap<>();
+  private Vertx vertx;
+  private PgSubscriber subscriber;
+
+  public EventConfigNotifications(EventConfigCache cache, ReadReplica readReplica) {
+    this.cache = cache;
+    this.readReplica = readReplica;
+  }
+
+  public static EventConfigNotifications getInstance() {
+    return INSTANCE;
+  }
+
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(System.getenv().getOrDefault(NOTIFY_ENV, "true"));
+  }
+
+  /**
+   * Starts listening with the database connection of the module, once per instance.
+   *
+   * @param config connection configuration of RMB's {@code PostgresClient}
+   */
+  public synchronized Future<Void> start(Vertx vertx, JsonObject config) {
+    if (subscriber != null) {
+      return Future.succeededFuture();
+    }
+    this.vertx = vertx;
+    subscriber = PgSubscriber.subscriber(vertx, DbConnectOptions.of(config))
+      .reconnectPolicy(retries -> Math.min(1000L << Math.min(retries, 5), MAX_RECONNECT_DELAY_MS));
+    subscriber.channel(CHANNEL)
+      .subscribeHandler(v -> {
+        logger.info("start:: Listening on {} for Event Configuration changes", CHANNEL);
+        cache.invalidateAll();
+      })
+      .handler(this::handle);
+    subscriber.closeHandler(v -> logger.info("start:: Stopped listening on {}", CHANNEL));
+    return subscriber.connect();
+  }
+
+  public synchronized Future<Void> stop() {
+    if (subscriber == null) {
+      return Future.succeededFuture();
+    }
+    Future<Void> close = subscriber.close();
+    subscriber = null;
+    return close;
+  }
+
+  private void handle(String payload) {
+    try {
+      JsonObject notification = new JsonObject(payload);
+      logger.debug("handle:: {} of Event Configuration {} of tenant: {}", notification.getString("operation"),
+        notification.getString("id"), notification.getString("tenant"));
+      String tenant = notification.getString("tenant");
+      String id = notification.getString("id");
+      readReplica.written(tenant);
+      cache.invalidate(tenant);
+      if (!isLocal(tenant, id)) {
+        republish(tenant, id, notification.getString("operation"));
+      }
+    } catch (DecodeException e) {
+      logger.warn("handle:: Invalid notification: {}", payload, e);
+    }
+  }
+
+  private void republish(String tenant, String id, String operation) {
+    EventConfigChange.Action action = switch (String.valueOf(operation)) {
+      case "INSERT" -> EventConfigChange.Action.CREATED;
+      case "UPDATE" -> EventConfigChange.Action.UPDATED;
+      case "DELETE" -> EventConfigChange.Action.DELETED;
+      default -> null;
+    };
+    if (action == null || id == null) {
+      logger.warn("republish:: Invalid operation {} of Event Configuration {} of tenant: {}", operation, id, tenant);
+      return;
+    }
+    EventConfigChanges.publish(vertx, tenant, new EventConfigChange().withAction(action).withId(id));
+  }
+
+  /**
+   * Records that this instance starts writing the event configuration, call {@link #written} once it completed.
+   */
+  public void writing(String tenant, String id) {
+    synchronized (localWrites) {
+      localWrites.computeIfAbsent(key(tenant, id), k -> new LocalWrite()).inFlight++;
+    }
+  }
+
+  /**
+   * Records that a write of this instance completed, successfully or not.
+   */
+  public void written(String tenant, String id) {
+    long now = System.nanoTime();
+    synchronized (localWrites) {
+      LocalWrite localWrite = localWrites.get(key(tenant, id));
+      if (localWrite != null) {
+        localWrite.inFlight--;
+        localWrite.completed = now;
+      }
+      localWrites.values().removeIf(write -> write.isExpired(now));
+    }
+  }
+
+  private boolean isLocal(String tenant, String id) {
+    if (id == null) {
+      return false;
+    }
+    synchronized (localWrites) {
+      LocalWrite localWrite = localWrites.get(key(tenant, id));
+      return localWrite != null && !localWrite.isExpired(System.nanoTime());
+    }
+  }
+
+  private static String key(String tenant, String id) {
+    return tenant + '/' + id.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class LocalWrite {
+    private int inFlight;
+    private long completed;
+
+    private boolean isExpired(long now) {
+      return inFlight <= 0 && now - completed > TimeUnit.MILLISECONDS.toNanos(LOCAL_WRITE_GRACE_MS);
+    }
+  }
+}
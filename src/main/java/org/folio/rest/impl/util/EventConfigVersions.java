@@ -0,0 +1,77 @@
+package org.folio.rest.impl.util;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Versions of event configurations kept by the {@code event_configurations_history} trigger.
+ * <p>
+ * A version holds the top level properties that changed and the names of the removed ones,
+ * so an earlier state is rebuilt by replaying the versions in order.
+ */
+public final class EventConfigVersions {
+
+  public static final String HISTORY = "event_configurations_history";
+
+  /**
+   * SQL expression of a history row in the {@code event_config_version} schema.
+   */
+  public static final String VERSION_JSON = "jsonb_build_object('configId', config_id, 'version', version,"
+    + " 'operation', operation,"
+    + " 'changedAt', to_char(changed_at AT TIME ZONE 'UTC', 'YYYY-MM-DD\"T\"HH24:MI:SS.MS\"+00:00\"'),"
+    + " 'changed', changed, 'removed', to_jsonb(removed))";
+
+  private static final DateTimeFormatter AS_OF_FORMAT = new DateTimeFormatterBuilder()
+    .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+    .optionalStart().appendOffset("+HH:MM", "Z").optionalEnd()
+    .optionalStart().appendOffset("+HHMM", "Z").optionalEnd()
+    .toFormatter();
+
+  private EventConfigVersions() {}
+
+  /**
+   * Returns the time of the {@code asOf} parameter, an ISO 8601 date-time with an offset like
+   * {@code +01:00}, {@code +0100} or {@code Z}, or in UTC without; null if it is not valid.
+   */
+  public static OffsetDateTime parseAsOf(String asOf) {
+    try {
+      TemporalAccessor time = AS_OF_FORMAT.parseBest(asOf, OffsetDateTime::from, LocalDateTime::from);
+      return time instanceof LocalDateTime local ? local.atOffset(ZoneOffset.UTC) : (OffsetDateTime) time;
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Rebuilds the event configuration from its versions in ascending order, returns null if
+   * there are none or the last one deleted it.
+   */
+  public static JsonObject replay(Iterable<JsonObject> versions) {
+    JsonObject config = null;
+    for (JsonObject version : versions) {
+      switch (version.getString("operation")) {
+        case "CREATED" -> config = version.getJsonObject("changed").copy();
+        case "DELETED" -> config = null;
+        default -> {
+          if (config == null) {
+            config = new JsonObject();
+          }
+          config.mergeIn(version.getJsonObject("changed"));
+          JsonArray removed = version.getJsonArray("removed", new JsonArray());
+          for (int i = 0; i < removed.size(); i++) {
+            config.remove(removed.getString(i));
+          }
+        }
+      }
+    }
+    return config;
+  }
+}
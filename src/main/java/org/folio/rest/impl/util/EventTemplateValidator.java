@@ -0,0 +1,162 @@
+package org.folio.rest.impl.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.folio.rest.jaxrs.model.Error;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.jaxrs.model.Parameter;
+import org.folio.rest.jaxrs.model.Template;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Validates the templates of an event configuration beyond the JSON schema:
+ * <ul>
+ *   <li>the output format is one of {@code EVENT_CONFIG_OUTPUT_FORMATS}</li>
+ *   <li>the delivery channel is one of {@code EVENT_CONFIG_DELIVERY_CHANNELS}</li>
+ *   <li>there is at most one template per delivery channel and output format</li>
+ *   <li>the template exists, if {@code EVENT_CONFIG_TEMPLATE_CHECK} is {@code okapi}</li>
+ * </ul>
+ * The allowed values are read once into sorted sets, so that error messages list them in a
+ * stable order, and valid templates are checked without allocating; an empty list of allowed values, the default, disables that rule.
+ */
+public class EventTemplateValidator {
+
+  public static final String OUTPUT_FORMATS_ENV = "EVENT_CONFIG_OUTPUT_FORMATS";
+  public static final String DELIVERY_CHANNELS_ENV = "EVENT_CONFIG_DELIVERY_CHANNELS";
+  public static final String TEMPLATE_CHECK_ENV = "EVENT_CONFIG_TEMPLATE_CHECK";
+  private static final String DEFAULT_OUTPUT_FORMATS = "";
+  private static final String DEFAULT_DELIVERY_CHANNELS = "";
+  public static final String TEMPLATE_DOES_NOT_EXIST = "Template does not exist";
+  private static final String INVALID_TEMPLATE = "INVALID_TEMPLATE";
+
+  private static EventTemplateValidator instance;
+
+  private final Set<String> outputFormats;
+  private final Set<String> deliveryChannels;
+  private final TemplateIdChecker templateIdChecker;
+
+  public EventTemplateValidator(Set<String> outputFormats, Set<String> deliveryChannels,
+                                TemplateIdChecker templateIdChecker) {
+    this.outputFormats = new TreeSet<>(outputFormats);
+    this.deliveryChannels = new TreeSet<>(deliveryChannels);
+    this.templateIdChecker = templateIdChecker;
+  }
+
+  /**
+   * Returns the validator configured by the environment variables.
+   */
+  public static synchronized EventTemplateValidator getInstance(Vertx vertx) {
+    if (instance == null) {
+      TemplateIdChecker checker = "okapi".equalsIgnoreCase(System.getenv(TEMPLATE_CHECK_ENV))
+        ? new OkapiTemplateIdChecker(vertx, Long.parseLong(System.getenv().getOrDefault(
+            OkapiTemplateIdChecker.TIMEOUT_ENV, String.valueOf(OkapiTemplateIdChecker.DEFAULT_TIMEOUT_MS))))
+        : TemplateIdChecker.NONE;
+      instance = new EventTemplateValidator(
+        split(System.getenv().getOrDefault(OUTPUT_FORMATS_ENV, DEFAULT_OUTPUT_FORMATS)),
+        split(System.getenv().getOrDefault(DELIVERY_CHANNELS_ENV, DEFAULT_DELIVERY_CHANNELS)),
+        checker);
+    }
+    return instance;
+  }
+
+  /**
+   * Returns the violations of the rules, or null if the templates are valid.
+   */
+  public Future<Errors> validate(List<Template> templates, Map<String, String> okapiHeaders) {
+    Errors errors = validate(templates);
+    if (errors != null || templates == null || templates.isEmpty()
+      || templateIdChecker == TemplateIdChecker.NONE) {
+      return Future.succeededFuture(errors);
+    }
+    Set<String> templateIds = templates.stream()
+      .map(Template::getTemplateId)
+      .collect(Collectors.toSet());
+    return missing(templateIds, okapiHeaders)
+      .map(missing -> {
+        if (missing.isEmpty()) {
+          return null;
+        }
+        List<Error> missingErrors = new ArrayList<>(missing.size());
+        for (String templateId : missing) {
+          missingErrors.add(error(TEMPLATE_DOES_NOT_EXIST, "templateId", templateId));
+        }
+        return new Errors().withErrors(missingErrors).withTotalRecords(missingErrors.size());
+      });
+  }
+
+  /**
+   * Returns the template ids that do not exist, with a single lookup for all of them,
+   * or none if the templates are not checked.
+   */
+  public Future<List<String>> missing(Set<String> templateIds, Map<String, String> okapiHeaders) {
+    if (templateIds.isEmpty() || templateIdChecker == TemplateIdChecker.NONE) {
+      return Future.succeededFuture(List.of());
+    }
+    return templateIdChecker.missing(templateIds, okapiHeaders);
+  }
+
+  /**
+   * Returns the violations of the rules that do not need other modules, or null if the templates are valid.
+   */
+  public Errors validate(List<Template> templates) {
+    if (templates == null) {
+      return null;
+    }
+    List<Error> errors = null;
+    for (int i = 0; i < templates.size(); i++) {
+      Template template = templates.get(i);
+      if (!outputFormats.isEmpty() && !outputFormats.contains(template.getOutputFormat())) {
+        errors = add(errors, error("Output format must be one of " + outputFormats,
+          "templates[" + i + "].outputFormat", template.getOutputFormat()));
+      }
+      if (!deliveryChannels.isEmpty() && !deliveryChannels.contains(template.getDeliveryChannel())) {
+        errors = add(errors, error("Delivery channel must be one of " + deliveryChannels,
+          "templates[" + i + "].deliveryChannel", template.getDeliveryChannel()));
+      }
+      // configurations have a handful of templates, comparing pairs beats building a set
+      for (int j = 0; j < i; j++) {
+        Template other = templates.get(j);
+        if (template.getDeliveryChannel().equals(other.getDeliveryChannel())
+          && template.getOutputFormat().equals(other.getOutputFormat())) {
+          errors = add(errors, error("There is more than one template for delivery channel "
+            + template.getDeliveryChannel() + " and output format " + template.getOutputFormat(),
+            "templates[" + i + "]", template.getTemplateId()));
+          break;
+        }
+      }
+    }
+    return errors == null ? null : new Errors().withErrors(errors).withTotalRecords(errors.size());
+  }
+
+  private static List<Error> add(List<Error> errors, Error error) {
+    List<Error> list = errors == null ? new ArrayList<>() : errors;
+    list.add(error);
+    return list;
+  }
+
+  private static Error error(String message, String key, String value) {
+    return new Error()
+      .withMessage(message)
+      .withType("1")
+      .withCode(INVALID_TEMPLATE)
+      .withParameters(List.of(new Parameter().withKey(key).withValue(value)));
+  }
+
+  private static Set<String> split(String values) {
+    Set<String> set = new HashSet<>();
+    Arrays.stream(values.split(","))
+      .map(String::trim)
+      .filter(value -> !value.isEmpty())
+      .forEach(set::add);
+    return set;
+  }
+}
@@ -0,0 +1,129 @@
+package org.folio.rest.impl.util;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * A CQL query of the form {@code name==X}, {@code id==X} or {@code active==X} without
+ * masking characters, relation modifiers or boolean operators.
+ * <p>
+ * Such queries are answered by a prepared statement instead of going through CQL2PgJSON.
+ * The generated condition mirrors what CQL2PgJSON generates for the field, so {@code name}
+ * still hits the unique index on {@code lower(f_unaccent(jsonb->>'name'))}.
+ */
+public final class ExactMatchQuery {
+
+  private static final Pattern EXACT_MATCH = Pattern.compile(
+    "^\\s*(name|id|active)\\s*==\\s*(?:\"([^\"*?^\\\\]+)\"|([^\\s\"*?^\\\\()=<>/]+))\\s*$");
+
+  public enum Field {
+    NAME, ID, ACTIVE
+  }
+
+  private final Field field;
+  private final String value;
+
+  private ExactMatchQuery(Field field, String value) {
+    this.field = field;
+    this.value = value;
+  }
+
+  /**
+   * Returns the exact match query, or empty if the CQL query needs the full CQL2PgJSON translation.
+   */
+  public static Optional<ExactMatchQuery> parse(String query) {
+    if (query == null) {
+      return Optional.empty();
+    }
+    Matcher matcher = EXACT_MATCH.matcher(query);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    Field field = Field.valueOf(matcher.group(1).toUpperCase(Locale.ROOT));
+    String value = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+    return switch (field) {
+      case NAME -> Optional.of(new ExactMatchQuery(field, value));
+      case ID -> EventConfigHelper.isUuid(value) ? Optional.of(new ExactMatchQuery(field, value.toLowerCase(Locale.ROOT))) : Optional.empty();
+      case ACTIVE -> isBoolean(value) ? Optional.of(new ExactMatchQuery(field, value.toLowerCase(Locale.ROOT))) : Optional.empty();
+    };
+  }
+
+  /**
+   * Returns the query for the configuration with the name.
+   */
+  public static ExactMatchQuery ofName(String name) {
+    return new ExactMatchQuery(Field.NAME, name);
+  }
+
+  public Field getField() {
+    return field;
+  }
+
+  public String getValue() {
+    return value;
+  }
+
+  /**
+   * Returns the key under which the result of a name query can be cached, names match
+   * case-insensitively.
+   */
+  public String getCacheKey() {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns whether the field is unique, so that the query matches at most one configuration.
+   */
+  public boolean isUnique() {
+    return field != Field.ACTIVE;
+  }
+
+  /**
+   * Returns how to count the matches for the requested {@code totalRecords}: the count of a unique
+   * field covers at most one row and is always exact, unless no count is requested.
+   */
+  public TotalRecords countMode(TotalRecords requested) {
+    if (requested == TotalRecords.NONE || !isUnique()) {
+      return requested;
+    }
+    return TotalRecords.EXACT;
+  }
+
+  /**
+   * Returns the SQL condition, the value is bound to {@code $1}.
+   */
+  public String toWhereClause(String schema) {
+    return switch (field) {
+      case NAME -> "lower(" + schema + ".f_unaccent(jsonb->>'name')) = lower(" + schema + ".f_unaccent($1))";
+      case ID -> "id = $1";
+      case ACTIVE -> "jsonb->>'active' = $1";
+    };
+  }
+
+  /**
+   * Returns the SQL condition with the value as literal, for statements that cannot bind it like
+   * the query passed to {@code count_estimate}.
+   */
+  public String toLiteralWhereClause(String schema) {
+    String literal = "'" + value.replace("'", "''") + "'";
+    return switch (field) {
+      case NAME -> "lower(" + schema + ".f_unaccent(jsonb->>'name')) = lower(" + schema + ".f_unaccent("
+        + literal + "))";
+      case ID -> "id = " + literal;
+      case ACTIVE -> "jsonb->>'active' = " + literal;
+    };
+  }
+
+  public Tuple toTuple() {
+    return field == Field.ID ? Tuple.of(UUID.fromString(value)) : Tuple.of(value);
+  }
+
+  private static boolean isBoolean(String value) {
+    return "true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value);
+  }
+}
@@ -0,0 +1,88 @@
+package org.folio.rest.impl.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Sparse fieldset of {@code GET /eventConfig}, evaluated by the database so that only the
+ * requested top level properties of the {@code jsonb} column are read and transferred.
+ * <p>
+ * The {@code id} is always returned. A delivery channel restricts the templates to those of
+ * the channel, with all other properties if no fields are requested.
+ */
+public final class FieldProjection {
+
+  private static final List<String> FIELDS = List.of("id", "name", "active", "templates", "metadata");
+  private static final String TEMPLATES = "templates";
+
+  /**
+   * The full documents.
+   */
+  public static final FieldProjection ALL = new FieldProjection(null, null);
+
+  private final List<String> fields;
+  private final String deliveryChannel;
+
+  private FieldProjection(List<String> fields, String deliveryChannel) {
+    this.fields = fields;
+    this.deliveryChannel = deliveryChannel;
+  }
+
+  /**
+   * Returns the projection of the request parameters.
+   *
+   * @param fields comma separated property names, validated by the RAML pattern
+   * @param deliveryChannel the delivery channel of the templates to return
+   */
+  public static FieldProjection of(String fields, String deliveryChannel) {
+    if (fields == null && deliveryChannel == null) {
+      return ALL;
+    }
+    if (fields == null) {
+      return new FieldProjection(null, deliveryChannel);
+    }
+    Set<String> requested = Arrays.stream(fields.split(","))
+      .map(String::trim)
+      .collect(Collectors.toSet());
+    List<String> projected = FIELDS.stream()
+      .filter(field -> field.equals("id") || requested.contains(field)
+        || (field.equals(TEMPLATES) && deliveryChannel != null))
+      .toList();
+    return new FieldProjection(projected, deliveryChannel);
+  }
+
+  public boolean isAll() {
+    return this == ALL;
+  }
+
+  /**
+   * Returns the SQL expression of the projected document.
+   *
+   * @param channelParameter number of the statement parameter the delivery channel is bound to
+   */
+  public String toSelect(int channelParameter) {
+    String templates = deliveryChannel == null ? "jsonb->'templates'"
+      : "jsonb_path_query_array(jsonb->'templates', '$[*] ? (@.deliveryChannel == $channel)', "
+        + "jsonb_build_object('channel', $" + channelParameter + "::text))";
+    if (isAll()) {
+      return "jsonb";
+    }
+    if (fields == null) {
+      return "jsonb || jsonb_build_object('templates', coalesce(" + templates + ", '[]'::jsonb))";
+    }
+    return fields.stream()
+      .map(field -> "'" + field + "', " + (field.equals(TEMPLATES) ? templates : "jsonb->'" + field + "'"))
+      .collect(Collectors.joining(", ", "jsonb_strip_nulls(jsonb_build_object(", "))"));
+  }
+
+  /**
+   * Binds the delivery channel, if any, as the next parameter of the tuple.
+   */
+  public Tuple bind(Tuple tuple) {
+    return deliveryChannel == null ? tuple : tuple.addString(deliveryChannel);
+  }
+}
@@ -0,0 +1,59 @@
+package org.folio.rest.impl.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits log events that a client can trigger on every request, like rejected queries, to one
+ * per interval and key, so that a misbehaving client cannot flood the log.
+ * <pre>
+ * long suppressed = LogSampler.getInstance().sample("invalid_query");
+ * if (suppressed >= 0) {
+ *   logger.warn("mapException:: Returning BAD_REQUEST, {} similar events suppressed", suppressed);
+ * }
+ * </pre>
+ */
+public class LogSampler {
+
+  private static final LogSampler INSTANCE = new LogSampler(TimeUnit.SECONDS.toMillis(1), System::nanoTime);
+
+  private final long intervalNanos;
+  private final LongSupplier nanoTime;
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+  public LogSampler(long intervalMillis, LongSupplier nanoTime) {
+    this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    this.nanoTime = nanoTime;
+  }
+
+  public static LogSampler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the number of events of the key suppressed since the last logged one if this
+   * event is to be logged, or -1 if it is to be suppressed.
+   */
+  public long sample(String key) {
+    long now = nanoTime.getAsLong();
+    Window window = windows.computeIfAbsent(key, k -> new Window(now));
+    long next = window.next.get();
+    if (now - next >= 0 && window.next.compareAndSet(next, now + intervalNanos)) {
+      return window.suppressed.getAndSet(0);
+    }
+    window.suppressed.incrementAndGet();
+    return -1;
+  }
+
+  private static final class Window {
+    private final AtomicLong next;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private Window(long next) {
+      this.next = new AtomicLong(next);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.folio.rest.impl.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.core.util.ContextDataProvider;
+import org.apache.logging.log4j.util.SortedArrayStringMap;
+import org.apache.logging.log4j.util.StringMap;
+import org.folio.okapi.common.logging.FolioLoggingContext;
+
+/**
+ * Adds the request id, tenant, user and module of the current Vert.x context to each log event.
+ * <p>
+ * The {@code FolioLoggingContext} lookup reads the Vert.x context of the thread that formats the
+ * event, which for async loggers is the background thread. The context data is captured on the
+ * logging thread instead, so layouts refer to it with {@code $${ctx:requestId}}.
+ * <p>
+ * With the garbage-free thread context map enabled in {@code log4j2.component.properties}, Log4j
+ * takes the data from {@link #supplyStringMap()} and copies it into the event's reusable map, so
+ * a map kept per logging thread is refilled instead of allocating one per event.
+ */
+public class LoggingContextDataProvider implements ContextDataProvider {
+
+  private static final List<String> KEYS = List.of("requestId", "tenantId", "userId", "moduleId");
+  private static final FolioLoggingContext LOOKUP = new FolioLoggingContext();
+  private static final ThreadLocal<StringMap> DATA =
+    ThreadLocal.withInitial(() -> new SortedArrayStringMap(KEYS.size()));
+
+  /**
+   * @return the context data of the current thread, valid until the next call on this thread
+   */
+  @Override
+  public StringMap supplyStringMap() {
+    StringMap data = DATA.get();
+    data.clear();
+    for (String key : KEYS) {
+      String value = LOOKUP.lookup(key);
+      if (value != null && !value.isEmpty()) {
+        data.putValue(key, value);
+      }
+    }
+    return data;
+  }
+
+  /**
+   * Used by the non garbage-free thread context maps, which may keep the returned map in the
+   * event, so this returns a copy.
+   */
+  @Override
+  public Map<String, String> supplyContextData() {
+    return supplyStringMap().toMap();
+  }
+}
@@ -0,0 +1,22 @@
+package org.folio.rest.impl.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Access-ordered map evicting the least recently used entry once it holds more than
+ * {@code maxSize} entries. Not thread-safe, wrap it with {@link java.util.Collections#synchronizedMap}.
+ */
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+  private final int maxSize;
+
+  LruMap(int maxSize) {
+    super(16, 0.75f, true);
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+    return size() > maxSize;
+  }
+}
@@ -0,0 +1,81 @@
+package org.folio.rest.impl.util;
+
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+
+/**
+ * Writes the rows of a database cursor as newline delimited JSON to a chunked HTTP response.
+ * <p>
+ * The cursor is paused while the response write queue is full and resumed once it has
+ * been drained, so the memory used does not depend on the number of rows. If the client
+ * disconnects, the cursor is closed instead of reading the remaining rows. The returned
+ * future completes once the cursor has ended, failed or been closed, so that its
+ * transaction can be ended and the connection released.
+ */
+public class NdjsonStreamWriter {
+  private static final Logger logger = LogManager.getLogger(NdjsonStreamWriter.class);
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+  private static final Buffer NEWLINE = Buffer.buffer("\n");
+
+  private NdjsonStreamWriter() {}
+
+  /**
+   * @param toEntity maps a row to the entity written as one line
+   */
+  public static Future<Void> write(RowStream<Row> rows, Function<Row, ?> toEntity, HttpServerResponse response) {
+    logger.debug("write:: Streaming entities as newline delimited JSON");
+    Promise<Void> done = Promise.promise();
+    response.setStatusCode(200)
+      .setChunked(true)
+      .putHeader(HttpHeaders.CONTENT_TYPE, APPLICATION_NDJSON);
+    response.closeHandler(v -> {
+      logger.debug("write:: Client closed the connection, closing the cursor");
+      rows.close().onComplete(x -> done.tryComplete());
+    });
+    rows.handler(row -> {
+      if (response.closed()) {
+        return;
+      }
+      response.write(Json.encodeToBuffer(toEntity.apply(row)).appendBuffer(NEWLINE));
+      if (response.writeQueueFull()) {
+        rows.pause();
+        response.drainHandler(v -> rows.resume());
+      }
+    });
+    rows.endHandler(v -> {
+      done.tryComplete();
+      if (!response.closed()) {
+        response.end();
+      }
+    });
+    rows.exceptionHandler(e -> {
+      logger.warn("write:: Error while streaming entities", e);
+      done.tryComplete();
+      if (response.closed()) {
+        return;
+      }
+      if (!response.headWritten()) {
+        response.setStatusCode(500)
+          .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain")
+          .end("Internal Server Error");
+      } else {
+        // the status line has been sent already, an incomplete chunked body signals the failure
+        response.reset();
+      }
+    });
+    return done.future();
+  }
+}
@@ -0,0 +1,69 @@
+package org.folio.rest.impl.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.okapi.common.XOkapiHeaders;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.client.WebClient;
+
+/**
+ * Looks up each template id with {@code GET /templates/{id}} of the template engine through Okapi.
+ * Template ids that are not UUIDs are reported as missing without a lookup, and a lookup fails if
+ * the template engine does not answer within {@code EVENT_CONFIG_TEMPLATE_CHECK_TIMEOUT_MS}.
+ */
+public class OkapiTemplateIdChecker implements TemplateIdChecker {
+  private static final Logger logger = LogManager.getLogger(OkapiTemplateIdChecker.class);
+
+  public static final String TIMEOUT_ENV = "EVENT_CONFIG_TEMPLATE_CHECK_TIMEOUT_MS";
+  public static final long DEFAULT_TIMEOUT_MS = 5000;
+
+  private final WebClient client;
+  private final long timeoutMillis;
+
+  public OkapiTemplateIdChecker(Vertx vertx, long timeoutMillis) {
+    this.client = WebClient.create(vertx);
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public Future<List<String>> missing(Set<String> templateIds, Map<String, String> okapiHeaders) {
+    String okapiUrl = okapiHeaders.get(XOkapiHeaders.URL.toLowerCase());
+    List<Future<Boolean>> lookups = new ArrayList<>(templateIds.size());
+    List<String> ids = new ArrayList<>(templateIds);
+    for (String id : ids) {
+      if (!EventConfigHelper.isUuid(id)) {
+        lookups.add(Future.succeededFuture(false));
+        continue;
+      }
+      lookups.add(client.getAbs(okapiUrl + "/templates/" + id)
+        .timeout(timeoutMillis)
+        .putHeader(XOkapiHeaders.TENANT, okapiHeaders.get(XOkapiHeaders.TENANT.toLowerCase()))
+        .putHeader(XOkapiHeaders.TOKEN, okapiHeaders.get(XOkapiHeaders.TOKEN.toLowerCase()))
+        .send()
+        .compose(response -> switch (response.statusCode()) {
+          case 200 -> Future.succeededFuture(true);
+          case 404 -> Future.succeededFuture(false);
+          default -> Future.failedFuture("GET /templates/" + id + " returned " + response.statusCode()
+            + ": " + response.bodyAsString());
+        }));
+    }
+    return Future.all(lookups)
+      .map(x -> {
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+          if (!lookups.get(i).result()) {
+            missing.add(ids.get(i));
+          }
+        }
+        logger.debug("missing:: {} of {} templates do not exist", missing.size(), ids.size());
+        return missing;
+      });
+  }
+}
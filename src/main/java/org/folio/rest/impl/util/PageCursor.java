@@ -0,0 +1,33 @@
+package org.folio.rest.impl.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.folio.cql2pgjson.exception.QueryValidationException;
+
+/**
+ * Opaque keyset pagination cursor of {@code GET /eventConfig}, encoding the id of the last
+ * record of a page. Pages without sortBy are ordered by id, the next page seeks on the
+ * primary key index with {@code id > last id} instead of skipping offset rows.
+ */
+public final class PageCursor {
+
+  private PageCursor() {}
+
+  public static String encode(String id) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static UUID decode(String cursor) throws QueryValidationException {
+    try {
+      String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (EventConfigHelper.isUuid(id)) {
+        return UUID.fromString(id);
+      }
+    } catch (IllegalArgumentException e) {
+      // not base64, reported below
+    }
+    throw new QueryValidationException("Invalid cursor: " + cursor);
+  }
+}
@@ -0,0 +1,144 @@
+package org.folio.rest.impl.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.persist.PostgresClient;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Routes event configuration reads to a read-only replica given by {@code DB_HOST_READER}
+ * and {@code DB_PORT_READER}; writes always go to the primary.
+ * <p>
+ * The replica pool of a tenant connects with the credentials of the tenant's primary pool.
+ * For {@code EVENT_CONFIG_READ_YOUR_WRITES_MS} after a write of a tenant on this instance,
+ * the tenant's reads go to the primary as well, so that clients see their own writes
+ * despite replication lag.
+ * <p>
+ * If RMB shares one pool of {@code DB_MAXSHAREDPOOLSIZE} connections between all tenants,
+ * the replica pool is shared as well; it connects with the module's credentials and each
+ * statement switches to the tenant's role, as RMB does on the primary.
+ */
+public class ReadReplica {
+  private static final Logger logger = LogManager.getLogger(ReadReplica.class);
+
+  public static final String HOST_ENV = "DB_HOST_READER";
+  public static final String PORT_ENV = "DB_PORT_READER";
+  public static final String READ_YOUR_WRITES_ENV = "EVENT_CONFIG_READ_YOUR_WRITES_MS";
+  public static final String SHARED_POOL_SIZE_ENV = "DB_MAXSHAREDPOOLSIZE";
+  private static final String SHARED_POOL = "shared";
+  private static final long DEFAULT_READ_YOUR_WRITES_MS = 1000;
+  private static final int DEFAULT_POOL_SIZE = 4;
+
+  private static final ReadReplica INSTANCE = new ReadReplica(System.getenv(HOST_ENV),
+    Integer.parseInt(System.getenv().getOrDefault(PORT_ENV, "5432")),
+    Long.parseLong(System.getenv().getOrDefault(READ_YOUR_WRITES_ENV, String.valueOf(DEFAULT_READ_YOUR_WRITES_MS))),
+    Integer.parseInt(System.getenv().getOrDefault(SHARED_POOL_SIZE_ENV, "0")),
+    System::nanoTime);
+
+  private final String host;
+  private final int port;
+  private final long readYourWritesNanos;
+  private final int sharedPoolSize;
+  private final LongSupplier nanoTime;
+  private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+  public ReadReplica(String host, int port, long readYourWritesMillis, int sharedPoolSize, LongSupplier nanoTime) {
+    this.host = host == null || host.isBlank() ? null : host;
+    this.port = port;
+    this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+    this.sharedPoolSize = sharedPoolSize;
+    this.nanoTime = nanoTime;
+  }
+
+  public static ReadReplica getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return host != null;
+  }
+
+  public boolean isShared() {
+    return sharedPoolSize > 0;
+  }
+
+  /**
+   * Records a write of the tenant, call it once the write has completed.
+   */
+  public void written(String tenantId) {
+    if (isEnabled() && readYourWritesNanos > 0) {
+      lastWrites.put(tenantId, nanoTime.getAsLong());
+    }
+  }
+
+  /**
+   * Returns whether reads of the tenant go to the replica.
+   */
+  public boolean useReader(String tenantId) {
+    if (!isEnabled()) {
+      return false;
+    }
+    Long lastWrite = lastWrites.get(tenantId);
+    if (lastWrite == null) {
+      return true;
+    }
+    if (nanoTime.getAsLong() - lastWrite < readYourWritesNanos) {
+      return false;
+    }
+    lastWrites.remove(tenantId, lastWrite);
+    return true;
+  }
+
+  /**
+   * Executes the read-only statement on the replica or, if not used for the tenant, on the primary.
+   */
+  public Future<RowSet<Row>> execute(Vertx vertx, String tenantId, String sql, Tuple tuple) {
+    if (!useReader(tenantId)) {
+      return PostgresClient.getInstance(vertx, tenantId).execute(sql, tuple);
+    }
+    if (!isShared()) {
+      return pools.computeIfAbsent(tenantId,
+          key -> createPool(vertx, key, PostgresClient.getInstance(vertx, key).getConnectionConfig()))
+        .preparedQuery(sql)
+        .execute(tuple);
+    }
+    String role = PostgresClient.convertToPsqlStandard(tenantId);
+    return pools.computeIfAbsent(SHARED_POOL,
+        key -> createPool(vertx, key, PostgresClient.getInstance(vertx).getConnectionConfig()))
+      .withConnection(conn -> conn.query("SET ROLE " + role).execute()
+        .compose(x -> conn.preparedQuery(sql).execute(tuple)));
+  }
+
+  private Pool createPool(Vertx vertx, String name, JsonObject config) {
+    logger.info("createPool:: Creating read replica pool: {} on {}:{}", name, host, port);
+    PgConnectOptions connectOptions = DbConnectOptions.of(config)
+      .setHost(host)
+      .setPort(port);
+    int maxSize = isShared() ? sharedPoolSize : config.getInteger("maxPoolSize", DEFAULT_POOL_SIZE);
+    PoolOptions poolOptions = new PoolOptions()
+      .setMaxSize(maxSize);
+    Pool pool = PgBuilder.pool()
+      .with(poolOptions)
+      .connectingTo(connectOptions)
+      .using(vertx)
+      .build();
+    EventConfigMetrics.getInstance().pool("reader-" + name, pool::size, maxSize);
+    return pool;
+  }
+}
@@ -0,0 +1,55 @@
+package org.folio.rest.impl.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * De-duplicates concurrent identical reads: while the future of a key is in flight, further
+ * calls with an equal key get the same future instead of starting another read.
+ * <p>
+ * The key is removed as soon as the future completes, so completed results are never reused;
+ * use {@link EventConfigCache} for that. Callers share the result and must not modify it.
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, Future<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the future of the key in flight, or the future of the supplier otherwise.
+   */
+  public Future<V> execute(K key, Supplier<Future<V>> read) {
+    Future<V> current = inFlight.get(key);
+    if (current != null) {
+      EventConfigMetrics.getInstance().cacheAccess("in_flight", true);
+      return current;
+    }
+    Promise<V> promise = Promise.promise();
+    current = inFlight.putIfAbsent(key, promise.future());
+    if (current != null) {
+      EventConfigMetrics.getInstance().cacheAccess("in_flight", true);
+      return current;
+    }
+    EventConfigMetrics.getInstance().cacheAccess("in_flight", false);
+    try {
+      read.get().onComplete(ar -> {
+        inFlight.remove(key, promise.future());
+        promise.handle(ar);
+      });
+    } catch (RuntimeException e) {
+      inFlight.remove(key, promise.future());
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  /**
+   * Returns the number of keys in flight.
+   */
+  public int size() {
+    return inFlight.size();
+  }
+}
@@ -0,0 +1,225 @@
+package org.folio.rest.impl.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.rest.jaxrs.model.SlowQuery;
+import org.folio.rest.jaxrs.model.SlowQueryCollection;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Times the statements generated for CQL queries and keeps those that took longer than
+ * {@code EVENT_CONFIG_SLOW_QUERY_MS}, grouped by query shape: the CQL query with its terms
+ * replaced by {@code ?}, so that {@code name==A} and {@code name==B} count as one shape.
+ * <p>
+ * A slow query is logged with its CQL, SQL and row count; with {@code EVENT_CONFIG_SLOW_QUERY_EXPLAIN}
+ * the plan of the first slow query of a shape is fetched with {@code EXPLAIN}, without {@code ANALYZE},
+ * so the query is not run again. Each tenant keeps the {@code EVENT_CONFIG_SLOW_QUERY_SHAPES} most
+ * recently slow shapes.
+ * <p>
+ * A threshold of {@code 0} records every query, a negative one disables the log.
+ */
+public class SlowQueryLog {
+  private static final Logger logger = LogManager.getLogger(SlowQueryLog.class);
+
+  public static final String THRESHOLD_ENV = "EVENT_CONFIG_SLOW_QUERY_MS";
+  public static final String EXPLAIN_ENV = "EVENT_CONFIG_SLOW_QUERY_EXPLAIN";
+  public static final String MAX_SHAPES_ENV = "EVENT_CONFIG_SLOW_QUERY_SHAPES";
+  private static final int DEFAULT_THRESHOLD_MS = 500;
+  private static final int DEFAULT_MAX_SHAPES = 50;
+
+  private static final Pattern QUOTED_TERM = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"");
+  private static final Pattern TERM = Pattern.compile(
+    "(==|<>|<=|>=|=|<|>|\\b(?:any|all|adj|within)\\b)((?:/[\\w.]+)*)\\s*([^\\s()]+)", Pattern.CASE_INSENSITIVE);
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final SlowQueryLog INSTANCE = new SlowQueryLog(
+    Long.parseLong(System.getenv().getOrDefault(THRESHOLD_ENV, String.valueOf(DEFAULT_THRESHOLD_MS))),
+    Boolean.parseBoolean(System.getenv().getOrDefault(EXPLAIN_ENV, "false")),
+    Integer.parseInt(System.getenv().getOrDefault(MAX_SHAPES_ENV, String.valueOf(DEFAULT_MAX_SHAPES))),
+    System::nanoTime);
+
+  private final long thresholdNanos;
+  private final boolean explain;
+  private final int maxShapes;
+  private final LongSupplier nanoTime;
+  private final Map<String, Map<String, Shape>> tenants = new ConcurrentHashMap<>();
+
+  public SlowQueryLog(long thresholdMillis, boolean explain, int maxShapes, LongSupplier nanoTime) {
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    this.explain = explain;
+    this.maxShapes = maxShapes;
+    this.nanoTime = nanoTime;
+  }
+
+  public static SlowQueryLog getInstance() {
+    return INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return thresholdNanos >= 0 && maxShapes > 0;
+  }
+
+  /**
+   * Runs the statement with {@code read} and records it if it is slow.
+   *
+   * @param statement {@code page} or {@code count}
+   * @param cql the CQL query the SQL has been generated from, may be null
+   * @param explain runs the {@code EXPLAIN} of a slow query; it runs after {@code read} completed,
+   *                so it has to acquire its own connection and query limit
+   */
+  public Future<RowSet<Row>> execute(String tenantId, String statement, String cql, String sql, Tuple tuple,
+                                     BiFunction<String, Tuple, Future<RowSet<Row>>> read,
+                                     BiFunction<String, Tuple, Future<RowSet<Row>>> explain) {
+    if (!isEnabled()) {
+      return read.apply(sql, tuple);
+    }
+    long start = nanoTime.getAsLong();
+    return read.apply(sql, tuple)
+      .onSuccess(rows -> {
+        long elapsed = nanoTime.getAsLong() - start;
+        if (elapsed >= thresholdNanos) {
+          slow(tenantId, statement, cql, sql, tuple, rows.size(), elapsed, explain);
+        }
+      });
+  }
+
+  private void slow(String tenantId, String statement, String cql, String sql, Tuple tuple, int rows,
+                    long nanos, BiFunction<String, Tuple, Future<RowSet<Row>>> explain) {
+    boolean first = record(tenantId, statement, cql, sql, rows, nanos);
+    if (LogSampler.getInstance().sample("slow_query") >= 0) {
+      logger.warn("slow:: {} query of tenant: {} took {} ms and returned {} rows, CQL: {}, SQL: {}",
+        statement, tenantId, TimeUnit.NANOSECONDS.toMillis(nanos), rows, cql, sql);
+    }
+    if (!explain || !first) {
+      return;
+    }
+    explain.apply("EXPLAIN " + sql, tuple)
+      .onSuccess(planRows -> {
+        StringBuilder plan = new StringBuilder();
+        for (Row row : planRows) {
+          if (!plan.isEmpty()) {
+            plan.append('\n');
+          }
+          plan.append(row.getString(0));
+        }
+        Shape shape = shapes(tenantId).get(key(statement, normalize(cql)));
+        if (shape != null) {
+          shape.plan = plan.toString();
+        }
+        logger.warn("slow:: Plan of {} query of tenant: {}, CQL: {}\n{}", statement, tenantId, cql, plan);
+      })
+      .onFailure(e -> logger.warn("slow:: Explaining {} query of tenant: {} failed, SQL: {}",
+        statement, tenantId, sql, e));
+  }
+
+  /**
+   * Adds a slow query to the shapes of the tenant, returns true if it is the first one of its shape.
+   */
+  public boolean record(String tenantId, String statement, String cql, String sql, int rows, long nanos) {
+    String shapeCql = normalize(cql);
+    Map<String, Shape> shapes = shapes(tenantId);
+    synchronized (shapes) {
+      String key = key(statement, shapeCql);
+      Shape shape = shapes.get(key);
+      boolean first = shape == null;
+      if (first) {
+        shape = new Shape(shapeCql, statement);
+        shapes.put(key, shape);
+      }
+      shape.add(sql, rows, TimeUnit.NANOSECONDS.toMillis(nanos));
+      return first;
+    }
+  }
+
+  /**
+   * Returns the slowest query shapes of the tenant, slowest first.
+   */
+  public SlowQueryCollection top(String tenantId, int limit) {
+    Map<String, Shape> shapes = shapes(tenantId);
+    List<SlowQuery> slowQueries = new ArrayList<>();
+    synchronized (shapes) {
+      for (Shape shape : shapes.values()) {
+        slowQueries.add(shape.toSlowQuery());
+      }
+    }
+    slowQueries.sort(Comparator.comparing(SlowQuery::getMaxMillis).reversed());
+    return new SlowQueryCollection()
+      .withSlowQueries(slowQueries.subList(0, Math.min(limit, slowQueries.size())))
+      .withTotalRecords(slowQueries.size());
+  }
+
+  /**
+   * Returns the shape of the CQL query: quoted and unquoted terms are replaced by {@code ?}.
+   */
+  public static String normalize(String cql) {
+    if (cql == null || cql.isBlank()) {
+      return "";
+    }
+    String shape = QUOTED_TERM.matcher(cql).replaceAll("?");
+    shape = TERM.matcher(shape).replaceAll("$1$2 ?");
+    return WHITESPACE.matcher(shape.trim()).replaceAll(" ");
+  }
+
+  private Map<String, Shape> shapes(String tenantId) {
+    return tenants.computeIfAbsent(tenantId, key -> Collections.synchronizedMap(new LruMap<>(maxShapes)));
+  }
+
+  private static String key(String statement, String shapeCql) {
+    return statement + ' ' + shapeCql;
+  }
+
+  private static final class Shape {
+    private final String cql;
+    private final String statement;
+    private String sql;
+    private int count;
+    private long totalMillis;
+    private long maxMillis;
+    private int lastRows;
+    private long lastSeen;
+    private volatile String plan;
+
+    private Shape(String cql, String statement) {
+      this.cql = cql;
+      this.statement = statement;
+    }
+
+    private void add(String sql, int rows, long millis) {
+      this.sql = sql;
+      count++;
+      totalMillis += millis;
+      maxMillis = Math.max(maxMillis, millis);
+      lastRows = rows;
+      lastSeen = System.currentTimeMillis();
+    }
+
+    private SlowQuery toSlowQuery() {
+      return new SlowQuery()
+        .withCql(cql)
+        .withStatement(SlowQuery.Statement.fromValue(statement))
+        .withSql(sql)
+        .withCount(count)
+        .withMaxMillis((int) maxMillis)
+        .withMeanMillis((int) (totalMillis / count))
+        .withLastRows(lastRows)
+        .withLastSeen(new Date(lastSeen))
+        .withPlan(plan);
+    }
+  }
+}
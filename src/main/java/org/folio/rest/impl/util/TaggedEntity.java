@@ -0,0 +1,53 @@
+package org.folio.rest.impl.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+import io.vertx.core.json.Json;
+
+/**
+ * An entity together with its JSON representation and the strong entity tag of that
+ * representation, so that both are computed only once per entity.
+ */
+public final class TaggedEntity<T> {
+
+  private static final int ETAG_BYTES = 16;
+
+  private final T entity;
+  private final String json;
+  private final String etag;
+
+  private TaggedEntity(T entity, String json) {
+    this.entity = entity;
+    this.json = json;
+    this.etag = etag(json);
+  }
+
+  public static <T> TaggedEntity<T> of(T entity) {
+    return new TaggedEntity<>(entity, Json.encode(entity));
+  }
+
+  public T getEntity() {
+    return entity;
+  }
+
+  public String getJson() {
+    return json;
+  }
+
+  public String getEtag() {
+    return etag;
+  }
+
+  private static String etag(String json) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+      return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, ETAG_BYTES)) + '"';
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
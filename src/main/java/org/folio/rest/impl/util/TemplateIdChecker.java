@@ -0,0 +1,26 @@
+package org.folio.rest.impl.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.vertx.core.Future;
+
+/**
+ * Checks whether the templates referenced by event configurations exist, see {@link EventTemplateValidator}.
+ */
+public interface TemplateIdChecker {
+
+  /**
+   * Does not check the template ids.
+   */
+  TemplateIdChecker NONE = (templateIds, okapiHeaders) -> Future.succeededFuture(List.of());
+
+  /**
+   * Returns the template ids that do not exist.
+   *
+   * @param templateIds distinct template ids
+   * @param okapiHeaders headers of the request, for calls to other modules
+   */
+  Future<List<String>> missing(Set<String> templateIds, Map<String, String> okapiHeaders);
+}
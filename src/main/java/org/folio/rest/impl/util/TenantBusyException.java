@@ -0,0 +1,11 @@
+package org.folio.rest.impl.util;
+
+/**
+ * Thrown if a tenant has more database queries waiting than {@link TenantQueryLimiter} allows.
+ */
+public class TenantBusyException extends RuntimeException {
+
+  public TenantBusyException(String tenantId) {
+    super("Too many concurrent requests of tenant " + tenantId);
+  }
+}
@@ -0,0 +1,132 @@
+package org.folio.rest.impl.util;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Caps the number of concurrent database queries of each tenant, so that one tenant cannot
+ * take all connections of the shared pool.
+ * <p>
+ * Queries above {@code EVENT_CONFIG_TENANT_MAX_QUERIES} wait in a per-tenant queue and start,
+ * on the context that submitted them, as soon as a query of the tenant completes. Queries
+ * above {@code EVENT_CONFIG_TENANT_MAX_QUEUED} waiting ones fail with {@link TenantBusyException}.
+ */
+public class TenantQueryLimiter {
+  private static final Logger logger = LogManager.getLogger(TenantQueryLimiter.class);
+
+  public static final String MAX_QUERIES_ENV = "EVENT_CONFIG_TENANT_MAX_QUERIES";
+  public static final String MAX_QUEUED_ENV = "EVENT_CONFIG_TENANT_MAX_QUEUED";
+  /**
+   * The default size of a tenant's own pool in RMB, so the limit is only effective with a shared pool.
+   */
+  private static final int DEFAULT_MAX_QUERIES = 4;
+  private static final int DEFAULT_MAX_QUEUED = 100;
+
+  private static final TenantQueryLimiter INSTANCE = new TenantQueryLimiter(
+    Integer.parseInt(System.getenv().getOrDefault(MAX_QUERIES_ENV, String.valueOf(DEFAULT_MAX_QUERIES))),
+    Integer.parseInt(System.getenv().getOrDefault(MAX_QUEUED_ENV, String.valueOf(DEFAULT_MAX_QUEUED))),
+    EventConfigMetrics.getInstance());
+
+  private final int maxQueries;
+  private final int maxQueued;
+  private final EventConfigMetrics metrics;
+  private final Map<String, TenantQueue> queues = new ConcurrentHashMap<>();
+
+  public TenantQueryLimiter(int maxQueries, int maxQueued, EventConfigMetrics metrics) {
+    this.maxQueries = maxQueries;
+    this.maxQueued = maxQueued;
+    this.metrics = metrics;
+    metrics.tenantQueries(this);
+  }
+
+  public static TenantQueryLimiter getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Starts the query returned by the supplier once the tenant is below its limit.
+   */
+  public <T> Future<T> execute(String tenantId, Supplier<Future<T>> query) {
+    if (maxQueries <= 0) {
+      return query.get();
+    }
+    TenantQueue queue = queues.computeIfAbsent(tenantId, key -> new TenantQueue());
+    Promise<T> promise = Promise.promise();
+    Runnable start = () -> Future.<T>future(p -> query.get().onComplete(p))
+      .onComplete(ar -> release(queue))
+      .onComplete(promise);
+    synchronized (queue) {
+      if (queue.running < maxQueries) {
+        queue.running++;
+      } else if (queue.waiting.size() < maxQueued) {
+        Context context = Vertx.currentContext();
+        queue.waiting.add(context == null ? start : () -> context.runOnContext(x -> start.run()));
+        return promise.future();
+      } else {
+        if (LogSampler.getInstance().sample("tenant_busy_" + tenantId) >= 0) {
+          logger.warn("execute:: Rejecting queries of tenant: {}, {} queries running and {} waiting",
+            tenantId, queue.running, queue.waiting.size());
+        }
+        metrics.tenantQueryRejected();
+        return Future.failedFuture(new TenantBusyException(tenantId));
+      }
+    }
+    start.run();
+    return promise.future();
+  }
+
+  private void release(TenantQueue queue) {
+    Runnable next;
+    synchronized (queue) {
+      next = queue.waiting.poll();
+      if (next == null) {
+        queue.running--;
+      }
+    }
+    if (next != null) {
+      next.run();
+    }
+  }
+
+  /**
+   * Returns the number of running queries of all tenants.
+   */
+  public int running() {
+    int running = 0;
+    for (TenantQueue queue : queues.values()) {
+      synchronized (queue) {
+        running += queue.running;
+      }
+    }
+    return running;
+  }
+
+  /**
+   * Returns the number of waiting queries of all tenants.
+   */
+  public int waiting() {
+    int waiting = 0;
+    for (TenantQueue queue : queues.values()) {
+      synchronized (queue) {
+        waiting += queue.waiting.size();
+      }
+    }
+    return waiting;
+  }
+
+  private static final class TenantQueue {
+    private int running;
+    private final Deque<Runnable> waiting = new ArrayDeque<>();
+  }
+}
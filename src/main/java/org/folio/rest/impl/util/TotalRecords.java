@@ -0,0 +1,22 @@
+package org.folio.rest.impl.util;
+
+import java.util.Locale;
+
+/**
+ * Values of the {@code totalRecords} query parameter.
+ */
+public enum TotalRecords {
+  /** Count all matching records. */
+  EXACT,
+  /** Exact count for small result sets, the planner estimate for large ones. */
+  ESTIMATED,
+  /** Do not count, omit {@code totalRecords} from the response. */
+  NONE;
+
+  public static TotalRecords fromValue(String value) {
+    if (value == null || value.isEmpty()) {
+      return ESTIMATED;
+    }
+    return valueOf(value.toUpperCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,59 @@
+-- Append-only history of event_configurations. Each version stores the top level properties
+-- of the jsonb that were added or changed and the names of the removed ones; a version is
+-- reconstructed by replaying the versions of the configuration from its creation.
+-- Versions are stamped with clock_timestamp(), the time the row has been locked and changed,
+-- not with now(), the start of the transaction: a transaction that started earlier may lock
+-- the row later, and its version must not get an older time than the one before it.
+
+CREATE TABLE IF NOT EXISTS ${myuniversity}_${mymodule}.event_configurations_history (
+  config_id uuid NOT NULL,
+  version integer NOT NULL,
+  operation text NOT NULL,
+  changed_at timestamptz NOT NULL,
+  changed jsonb NOT NULL,
+  removed text[] NOT NULL,
+  PRIMARY KEY (config_id, version)
+);
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.event_configurations_history() RETURNS trigger AS $$
+DECLARE
+  changed_id uuid := CASE WHEN TG_OP = 'DELETE' THEN OLD.id ELSE NEW.id END;
+  next_version integer;
+BEGIN
+  -- names moved out of the way by a batch that renames configurations into each other's names
+  IF current_setting('mod_event_config.renaming', true) = 'on' THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'UPDATE' AND NEW.jsonb = OLD.jsonb THEN
+    RETURN NULL;
+  END IF;
+  SELECT coalesce(max(h.version), 0) + 1 INTO next_version
+    FROM ${myuniversity}_${mymodule}.event_configurations_history h
+    WHERE h.config_id = changed_id;
+  IF TG_OP = 'INSERT' THEN
+    INSERT INTO ${myuniversity}_${mymodule}.event_configurations_history
+      VALUES (changed_id, next_version, 'CREATED', date_trunc('milliseconds', clock_timestamp()), NEW.jsonb, '{}');
+  ELSIF TG_OP = 'UPDATE' THEN
+    INSERT INTO ${myuniversity}_${mymodule}.event_configurations_history
+      VALUES (changed_id, next_version, 'UPDATED', date_trunc('milliseconds', clock_timestamp()),
+        coalesce((SELECT jsonb_object_agg(n.key, n.value) FROM jsonb_each(NEW.jsonb) n
+          WHERE OLD.jsonb -> n.key IS DISTINCT FROM n.value), '{}'),
+        ARRAY(SELECT o.key FROM jsonb_object_keys(OLD.jsonb) o(key) WHERE NOT NEW.jsonb ? o.key));
+  ELSE
+    INSERT INTO ${myuniversity}_${mymodule}.event_configurations_history
+      VALUES (changed_id, next_version, 'DELETED', date_trunc('milliseconds', clock_timestamp()), '{}', '{}');
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS event_configurations_history ON ${myuniversity}_${mymodule}.event_configurations;
+CREATE TRIGGER event_configurations_history AFTER INSERT OR UPDATE OR DELETE
+  ON ${myuniversity}_${mymodule}.event_configurations
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.event_configurations_history();
+
+-- configurations that existed before the history was introduced start with their current version
+INSERT INTO ${myuniversity}_${mymodule}.event_configurations_history
+  SELECT id, 1, 'CREATED', date_trunc('milliseconds', now()), jsonb, '{}'
+  FROM ${myuniversity}_${mymodule}.event_configurations
+  ON CONFLICT DO NOTHING;
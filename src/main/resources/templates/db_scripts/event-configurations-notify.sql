@@ -0,0 +1,17 @@
+-- Notifies the module instances listening on mod_event_config_changes of every committed change,
+-- so that they evict their caches of the tenant. The notification is sent on commit only.
+
+CREATE OR REPLACE FUNCTION ${myuniversity}_${mymodule}.event_configurations_notify() RETURNS trigger AS $$
+BEGIN
+  PERFORM pg_notify('mod_event_config_changes', json_build_object(
+    'tenant', '${myuniversity}',
+    'id', CASE WHEN TG_OP = 'DELETE' THEN OLD.id ELSE NEW.id END,
+    'operation', TG_OP)::text);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS event_configurations_notify ON ${myuniversity}_${mymodule}.event_configurations;
+CREATE TRIGGER event_configurations_notify AFTER INSERT OR UPDATE OR DELETE
+  ON ${myuniversity}_${mymodule}.event_configurations
+  FOR EACH ROW EXECUTE FUNCTION ${myuniversity}_${mymodule}.event_configurations_notify();
@@ -1,26 +1,40 @@
 package org.folio.impl;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
 import io.restassured.http.Header;
 import io.restassured.http.Headers;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
 import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.sqlclient.Tuple;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.folio.HttpStatus;
 import org.folio.postgres.testing.PostgresTesterContainer;
 import org.folio.rest.RestVerticle;
 import org.folio.rest.client.TenantClient;
+import org.folio.rest.impl.util.ContentNegotiation;
+import org.folio.rest.impl.util.EventConfigCache;
+import org.folio.rest.impl.util.EventConfigChanges;
+import org.folio.rest.impl.util.EventConfigNotifications;
+import org.folio.rest.impl.util.ReadReplica;
+import org.folio.rest.impl.util.TenantQueryLimiter;
 import org.folio.rest.jaxrs.model.EventConfigCollection;
+import org.folio.rest.jaxrs.model.EventEntity;
 import org.folio.rest.jaxrs.model.Template;
 import org.folio.rest.jaxrs.model.TenantAttributes;
 import org.folio.rest.jaxrs.model.TenantJob;
@@ -35,11 +49,23 @@ import org.junit.Test;
 import org.junit.rules.Timeout;
 import org.junit.runner.RunWith;
 
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.apache.commons.lang3.RandomStringUtils.secure;
 import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
@@ -164,6 +190,7 @@ public class EventConfigAPIsTest {
   @Before
   public void setUp(TestContext context) {
     Async async = context.async();
+    EventConfigCache.getInstance().invalidate(TENANT_ID);
     PostgresClient.getInstance(vertx, TENANT_ID).delete(SNAPSHOTS_TABLE_NAME, new Criterion(), event -> {
       if (event.failed()) {
         logger.error(event.cause());
@@ -302,6 +329,234 @@ public class EventConfigAPIsTest {
     assertEquals(2, totalRecords);
   }
 
+  @Test
+  public void testGetEventEntriesTotalRecords() {
+    requestPostEventConfig(getJsonEntity(null, secure().nextAlphabetic(10), true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    requestPostEventConfig(getJsonEntity(null, secure().nextAlphabetic(10), true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    JsonObject exact = getEventEntries("cql.allRecords=1&limit=1&totalRecords=exact");
+    assertEquals(2, (int) exact.getInteger("totalRecords"));
+    assertEquals(1, exact.getJsonArray("eventEntity").size());
+
+    JsonObject estimated = getEventEntries("cql.allRecords=1&limit=1&totalRecords=estimated");
+    assertEquals(2, (int) estimated.getInteger("totalRecords"));
+
+    JsonObject none = getEventEntries("cql.allRecords=1&limit=1&totalRecords=none");
+    assertTrue(!none.containsKey("totalRecords"));
+    assertEquals(1, none.getJsonArray("eventEntity").size());
+
+    JsonObject exactMatchNone = getEventEntries("active==true&totalRecords=none");
+    assertTrue(!exactMatchNone.containsKey("totalRecords"));
+    assertEquals(2, exactMatchNone.getJsonArray("eventEntity").size());
+
+    JsonObject exactMatchNonePage = getEventEntries("active==true&limit=1&totalRecords=none");
+    assertTrue(!exactMatchNonePage.containsKey("totalRecords"));
+    assertEquals(1, exactMatchNonePage.getJsonArray("eventEntity").size());
+
+    JsonObject exactMatchExact = getEventEntries("active==true&limit=1&totalRecords=exact");
+    assertEquals(2, (int) exactMatchExact.getInteger("totalRecords"));
+    assertEquals(1, exactMatchExact.getJsonArray("eventEntity").size());
+
+    JsonObject exactMatchEstimated = getEventEntries("active==true&limit=1&totalRecords=estimated");
+    assertEquals(2, (int) exactMatchEstimated.getInteger("totalRecords"));
+    assertEquals(1, exactMatchEstimated.getJsonArray("eventEntity").size());
+
+    requestGet
+      .get(restPath + "?totalRecords=sometimes")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void testGetEventEntriesContentNegotiation() throws IOException {
+    for (int i = 0; i < 10; i++) {
+      requestPostEventConfig(getJsonEntity(null, "NEGOTIATED_EVENT_" + i, true, createTemplates("email", "text/html")))
+        .then()
+        .statusCode(HttpStatus.SC_CREATED);
+    }
+
+    Response cbor = getEventEntries("application/cbor", null);
+    assertTrue(cbor.contentType().startsWith(ContentNegotiation.APPLICATION_CBOR));
+    assertEquals(10, new CBORMapper().readValue(cbor.asByteArray(), EventConfigCollection.class)
+      .getEventEntity().size());
+    assertTrue(getEventEntries("application/json, application/cbor;q=0.1", null).contentType()
+      .startsWith(MediaType.APPLICATION_JSON));
+
+    Response gzip = getEventEntries(null, "gzip");
+    assertEquals("gzip", gzip.header(HttpHeaders.CONTENT_ENCODING));
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.asByteArray()))) {
+      assertEquals(10, new JsonObject(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+        .getJsonArray("eventEntity").size());
+    }
+    assertEquals("deflate", getEventEntries(null, "deflate, gzip;q=0.1").header(HttpHeaders.CONTENT_ENCODING));
+    assertEquals(null, getEventEntries(null, "gzip;q=0").header(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  /**
+   * Gets all event entries with the headers, without decoding the response.
+   */
+  private Response getEventEntries(String accept, String acceptEncoding) {
+    RequestSpecification spec = RestAssured.given()
+      .port(port)
+      .config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()))
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(OKAPI_HEADER_TOKEN, OKAPI_TOKEN_VAL);
+    if (accept != null) {
+      spec.header(HttpHeaders.ACCEPT, accept);
+    }
+    if (acceptEncoding != null) {
+      spec.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return spec.get(restPath + "?limit=100")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response();
+  }
+
+  @Test
+  public void testGetEventEntriesWithCursor() {
+    for (int i = 0; i < 3; i++) {
+      requestPostEventConfig(getJsonEntity(null, secure().nextAlphabetic(10), true, new JsonArray()))
+        .then()
+        .statusCode(HttpStatus.SC_CREATED);
+    }
+
+    JsonObject first = getEventEntries("cql.allRecords=1&limit=2");
+    assertEquals(2, first.getJsonArray("eventEntity").size());
+    String nextCursor = first.getString("nextCursor");
+    assertTrue(nextCursor != null);
+
+    JsonObject second = getEventEntries("cql.allRecords=1&limit=2&cursor=" + nextCursor);
+    assertEquals(1, second.getJsonArray("eventEntity").size());
+    assertEquals(3, (int) second.getInteger("totalRecords"));
+    assertTrue(!second.containsKey("nextCursor"));
+    String lastId = first.getJsonArray("eventEntity").getJsonObject(1).getString("id");
+    assertTrue(second.getJsonArray("eventEntity").getJsonObject(0).getString("id").compareTo(lastId) > 0);
+
+    requestGet
+      .get(restPath + "?query=cql.allRecords=1&cursor=invalid")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+    requestGet
+      .get(restPath + "?query=cql.allRecords=1 sortBy name&cursor=" + nextCursor)
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void testGetEventEntriesWithFields() {
+    JsonArray templates = createTemplates("email", MediaType.TEXT_HTML)
+      .addAll(createTemplates("sms", MediaType.TEXT_PLAIN));
+    requestPostEventConfig(getJsonEntity(null, "PROJECTED_EVENT", true, templates))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    for (String query : List.of("name==PROJECTED_EVENT", "name=PROJECTED_EVENT")) {
+      JsonObject idAndName = getEventEntries(query + "&fields=name").getJsonArray("eventEntity").getJsonObject(0);
+      assertEquals(Set.of("id", "name"), idAndName.fieldNames());
+      assertEquals("PROJECTED_EVENT", idAndName.getString("name"));
+
+      JsonObject email = getEventEntries(query + "&deliveryChannel=email").getJsonArray("eventEntity").getJsonObject(0);
+      assertEquals(true, email.getBoolean("active"));
+      assertEquals(1, email.getJsonArray("templates").size());
+      assertEquals("email", email.getJsonArray("templates").getJsonObject(0).getString("deliveryChannel"));
+    }
+
+    requestGet
+      .get(restPath + "?fields=password")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void testResolveTemplates() {
+    JsonArray templates = createTemplates("email", MediaType.TEXT_HTML)
+      .addAll(createTemplates("email", MediaType.TEXT_PLAIN))
+      .addAll(createTemplates("sms", MediaType.TEXT_PLAIN));
+    requestPostEventConfig(getJsonEntity(null, "RESOLVED_EVENT", true, templates))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    requestPostEventConfig(getJsonEntity(null, "INACTIVE_EVENT", false, templates))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    JsonObject email = new JsonObject(resolve("name=resolved_event&deliveryChannel=email")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+    assertEquals("RESOLVED_EVENT", email.getString("name"));
+    assertEquals(2, email.getJsonArray("templates").size());
+
+    JsonObject plainSms = new JsonObject(resolve("name=RESOLVED_EVENT&deliveryChannel=sms&outputFormat=text/plain")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+    assertEquals(1, plainSms.getJsonArray("templates").size());
+    assertEquals("sms", plainSms.getJsonArray("templates").getJsonObject(0).getString("deliveryChannel"));
+
+    resolve("name=INACTIVE_EVENT&deliveryChannel=email")
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+    resolve("name=UNKNOWN_EVENT&deliveryChannel=email")
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+    resolve("deliveryChannel=email")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  private Response resolve(String parameters) {
+    return requestGet
+      .when()
+      .get(restPath + "/resolve?" + parameters);
+  }
+
+  @Test
+  public void testLookupEventConfigs() {
+    String id = new JsonObject(requestPostEventConfig(getJsonEntity(null, "LOOKUP_BY_ID_EVENT", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .asString()).getString("id");
+    requestPostEventConfig(getJsonEntity(null, "LOOKUP_BY_NAME_EVENT", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    requestPostEventConfig(getJsonEntity(null, "OTHER_EVENT", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    JsonObject lookup = new JsonObject()
+      .put("names", new JsonArray().add("lookup_by_name_event").add("UNKNOWN_EVENT"))
+      .put("ids", new JsonArray().add(id).add(UUID.randomUUID().toString()).add("invalid"));
+    JsonObject found = new JsonObject(request.body(lookup.encode())
+      .when()
+      .post(restPath + "/lookup")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+    assertEquals(2, (int) found.getInteger("totalRecords"));
+    assertEquals(Set.of("LOOKUP_BY_ID_EVENT", "LOOKUP_BY_NAME_EVENT"), found.getJsonArray("eventEntity").stream()
+      .map(entity -> ((JsonObject) entity).getString("name"))
+      .collect(Collectors.toSet()));
+
+    JsonObject none = new JsonObject(request.body(new JsonObject().encode())
+      .when()
+      .post(restPath + "/lookup")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+    assertEquals(0, (int) none.getInteger("totalRecords"));
+  }
+
   @Test
   public void testGetEventConfigById() {
     String id = UUID.randomUUID().toString();
@@ -392,6 +647,530 @@ public class EventConfigAPIsTest {
     assertEquals(expectedEntity, eventEntries.getJsonArray("eventEntity").getJsonObject(0));
   }
 
+  @Test
+  public void testGetEventConfigByNameAfterUpdate() {
+    String configName = "CHANGE_PASSWORD";
+    JsonObject entity = getJsonEntity(UUID.randomUUID().toString(), configName, true, new JsonArray());
+    String id = new JsonObject(requestPostEventConfig(entity)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .response()
+      .getBody().print()).getString("id");
+
+    // warm up the cache
+    requestGetEventByName(configName)
+      .then()
+      .statusCode(HttpStatus.SC_OK);
+    requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_OK);
+
+    requestPutEventConfig(id, entity.put("id", id).put("active", false))
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    JsonObject eventEntries = new JsonObject(requestGetEventByName(configName)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+    assertEquals(false, (boolean) eventEntries.getJsonArray("eventEntity").getJsonObject(0).getBoolean("active"));
+
+    JsonObject actualEntity = new JsonObject(requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+    assertEquals(false, (boolean) actualEntity.getBoolean("active"));
+
+    requestDeleteEntityById(id)
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+    requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+    JsonObject emptyEntries = new JsonObject(requestGetEventByName(configName)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+    assertEquals(0, (int) emptyEntries.getInteger("totalRecords"));
+  }
+
+  @Test
+  public void testGetEventConfigByExactMatch() {
+    String id = UUID.randomUUID().toString();
+    requestPostEventConfig(getJsonEntity(id, "Exact_Match", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    requestPostEventConfig(getJsonEntity(UUID.randomUUID().toString(), "INACTIVE", false, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    assertEquals(id, getEventEntries("name==EXACT_MATCH").getJsonArray("eventEntity").getJsonObject(0).getString("id"));
+    assertEquals(id, getEventEntries("name==\"exact_match\"").getJsonArray("eventEntity").getJsonObject(0).getString("id"));
+    assertEquals(1, (int) getEventEntries("id==" + id).getInteger("totalRecords"));
+    assertEquals(1, (int) getEventEntries("active==true").getInteger("totalRecords"));
+
+    JsonObject beyondLastPage = getEventEntries("active==false&offset=5");
+    assertEquals(1, (int) beyondLastPage.getInteger("totalRecords"));
+    assertEquals(0, beyondLastPage.getJsonArray("eventEntity").size());
+  }
+
+  @Test
+  public void testPostEventConfigBatch() {
+    String existingId = new JsonObject(requestPostEventConfig(getJsonEntity(null, "EXISTING", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .response()
+      .getBody().print()).getString("id");
+    requestPostEventConfig(getJsonEntity(null, "TAKEN", true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+
+    JsonObject batch = new JsonObject().put("eventEntity", new JsonArray()
+      .add(getJsonEntity(existingId, "EXISTING", false, new JsonArray()))
+      .add(getJsonEntity(null, "NEW", true, createTemplates("email", "text/html")))
+      .add(getJsonEntity(null, "taken", true, new JsonArray()))
+      .add(getJsonEntity(null, "new", true, new JsonArray())));
+
+    JsonArray results = new JsonObject(request.body(batch.encode())
+      .when()
+      .post(restPath + "/batch")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print()).getJsonArray("batchResults");
+
+    assertEquals(4, results.size());
+    assertEquals("updated", results.getJsonObject(0).getString("status"));
+    assertEquals(existingId, results.getJsonObject(0).getString("id"));
+    assertEquals("created", results.getJsonObject(1).getString("status"));
+    assertEquals("failed", results.getJsonObject(2).getString("status"));
+    assertEquals("failed", results.getJsonObject(3).getString("status"));
+
+    JsonObject entries = getEventEntries("cql.allRecords=1");
+    assertEquals(3, (int) entries.getInteger("totalRecords"));
+    assertEquals(false, (boolean) getEventEntries("name==EXISTING").getJsonArray("eventEntity")
+      .getJsonObject(0).getBoolean("active"));
+    String newId = results.getJsonObject(1).getString("id");
+    requestGetEventById(newId)
+      .then()
+      .statusCode(HttpStatus.SC_OK);
+  }
+
+  @Test
+  public void testPostEventConfigBatchRenames() {
+    String idA = postEventConfigId("SWAP_A");
+    String idB = postEventConfigId("SWAP_B");
+    String idC = postEventConfigId("SWAP_C");
+    String createdDate = getEventConfigById(idA).getJsonObject("metadata").getString("createdDate");
+
+    JsonObject batch = new JsonObject().put("eventEntity", new JsonArray()
+      .add(getJsonEntity(idA, "SWAP_B", true, new JsonArray()))
+      .add(getJsonEntity(idB, "SWAP_A", true, new JsonArray()))
+      .add(getJsonEntity(idC, "SWAP_D", true, new JsonArray()))
+      .add(getJsonEntity(null, "SWAP_C", true, new JsonArray())));
+    JsonArray results = new JsonObject(request.body(batch.encode())
+      .when()
+      .post(restPath + "/batch")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print()).getJsonArray("batchResults");
+
+    assertEquals(List.of("updated", "updated", "updated", "created"), results.stream()
+      .map(result -> ((JsonObject) result).getString("status")).toList());
+    JsonObject swappedA = getEventConfigById(idA);
+    assertEquals("SWAP_B", swappedA.getString("name"));
+    assertEquals(createdDate, swappedA.getJsonObject("metadata").getString("createdDate"));
+    assertEquals("SWAP_A", getEventConfigById(idB).getString("name"));
+    assertEquals("SWAP_D", getEventConfigById(idC).getString("name"));
+    JsonObject created = getEventConfigById(results.getJsonObject(3).getString("id"));
+    assertTrue(created.getJsonObject("metadata").containsKey("createdDate"));
+
+    JsonObject history = new JsonObject(requestGet
+      .get(String.format(PATH_TEMPLATE, restPath, idA) + "/history")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+    assertEquals(2, (int) history.getInteger("totalRecords"));
+    assertEquals("SWAP_B", history.getJsonArray("versions").getJsonObject(1).getJsonObject("changed").getString("name"));
+  }
+
+  private String postEventConfigId(String name) {
+    return new JsonObject(requestPostEventConfig(getJsonEntity(null, name, true, new JsonArray()))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .asString()).getString("id");
+  }
+
+  private JsonObject getEventConfigById(String id) {
+    return new JsonObject(requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+  }
+
+  @Test
+  public void testGetEventConfigStream() {
+    for (int i = 0; i < 3; i++) {
+      requestPostEventConfig(getJsonEntity(null, "STREAM_" + i, i != 0, new JsonArray()))
+        .then()
+        .statusCode(HttpStatus.SC_CREATED);
+    }
+
+    Response response = requestGet
+      .get(restPath + "/stream?query=active==true")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .contentType("application/x-ndjson")
+      .extract()
+      .response();
+
+    String[] lines = response.getBody().asString().split("\n");
+    assertEquals(2, lines.length);
+    for (String line : lines) {
+      assertTrue(new JsonObject(line).getBoolean("active"));
+    }
+
+    requestGet
+      .get(restPath + "/stream?query=invalid_sql")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void testGetEventConfigStreamClientDisconnects() throws Exception {
+    String table = PostgresClient.convertToPsqlStandard(TENANT_ID) + "." + SNAPSHOTS_TABLE_NAME;
+    PostgresClient.getInstance(vertx, TENANT_ID).execute("INSERT INTO " + table + " (id, jsonb)"
+        + " SELECT id, jsonb_build_object('id', id, 'name', 'STREAM_' || n, 'active', true,"
+        + " 'templates', jsonb_build_array(jsonb_build_object('templateId', repeat('x', 1000),"
+        + " 'outputFormat', 'text/html', 'deliveryChannel', 'email')))"
+        + " FROM (SELECT gen_random_uuid() AS id, n"
+        + " FROM generate_series(1, 5000) AS n) AS numbered")
+      .toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+
+    HttpClient client = vertx.createHttpClient();
+    try {
+      // read the first chunk only, then disconnect while the module still has rows to send
+      client.request(HttpMethod.GET, port, "localhost", restPath + "/stream")
+        .compose(request -> request
+          .putHeader(OKAPI_HEADER_TENANT, TENANT_ID)
+          .putHeader(OKAPI_HEADER_TOKEN, OKAPI_TOKEN_VAL)
+          .send())
+        .compose(response -> {
+          assertEquals(HttpStatus.SC_OK, response.statusCode());
+          Promise<Void> firstChunk = Promise.promise();
+          response.handler(buffer -> firstChunk.tryComplete());
+          return firstChunk.future().compose(x -> response.request().connection().close());
+        })
+        .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      long deadline = System.currentTimeMillis() + 2000;
+      while (TenantQueryLimiter.getInstance().running() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(0, TenantQueryLimiter.getInstance().running());
+    } finally {
+      client.close();
+    }
+  }
+
+  @Test
+  public void testConditionalRequests() {
+    JsonObject entity = getJsonEntity(UUID.randomUUID().toString(), "ETAG_EVENT", true, new JsonArray());
+    String id = new JsonObject(requestPostEventConfig(entity)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .response()
+      .getBody().print()).getString("id");
+
+    String etag = requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .header(HttpHeaders.ETAG);
+    RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(HttpHeaders.IF_NONE_MATCH, etag)
+      .get(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_NOT_MODIFIED);
+
+    String collectionEtag = requestGetEventByName("ETAG_EVENT")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .header(HttpHeaders.ETAG);
+    RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(HttpHeaders.IF_NONE_MATCH, collectionEtag)
+      .get(restPath + "?query=name==ETAG_EVENT")
+      .then()
+      .statusCode(HttpStatus.SC_NOT_MODIFIED);
+
+    RestAssured.given()
+      .port(port)
+      .contentType(MediaType.APPLICATION_JSON)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(HttpHeaders.IF_MATCH, "\"outdated\"")
+      .body(entity.put("id", id).put("active", false).encode())
+      .put(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_PRECONDITION_FAILED);
+
+    RestAssured.given()
+      .port(port)
+      .contentType(MediaType.APPLICATION_JSON)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(HttpHeaders.IF_MATCH, "W/" + etag)
+      .body(entity.encode())
+      .put(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_PRECONDITION_FAILED);
+
+    RestAssured.given()
+      .port(port)
+      .contentType(MediaType.APPLICATION_JSON)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .header(HttpHeaders.IF_MATCH, etag)
+      .body(entity.encode())
+      .put(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    String newEtag = requestGetEventById(id)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .header(HttpHeaders.ETAG);
+    assertTrue(!etag.equals(newEtag));
+  }
+
+  @Test
+  public void testChangeNotifications(TestContext context) throws Exception {
+    List<JsonObject> changes = new CopyOnWriteArrayList<>();
+    Async async = context.async(3);
+    MessageConsumer<JsonObject> consumer = vertx.eventBus().<JsonObject>consumer(EventConfigChanges.ADDRESS, message -> {
+      context.assertEquals(TENANT_ID, message.headers().get(EventConfigChanges.TENANT_HEADER));
+      changes.add(message.body());
+      if (async.count() > 0) {
+        async.countDown();
+      }
+    });
+    consumer.completion().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+    JsonObject entity = getJsonEntity(null, "NOTIFIED_EVENT", true, new JsonArray());
+    String id = new JsonObject(requestPostEventConfig(entity)
+      .then()
+      .statusCode(HttpStatus.SC_CREATED)
+      .extract()
+      .response()
+      .getBody().print()).getString("id");
+    String createdEtag = requestGetEventById(id).then().extract().header(HttpHeaders.ETAG);
+    requestPutEventConfig(id, entity.put("id", id).put("active", false))
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+    String updatedEtag = requestGetEventById(id).then().extract().header(HttpHeaders.ETAG);
+    requestDeleteEntityById(id)
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    async.await(5000);
+    // the notifications of the writes arrive as well, they must not be published a second time
+    Thread.sleep(200);
+    consumer.unregister();
+    assertEquals(List.of("CREATED", "UPDATED", "DELETED"),
+      changes.stream().map(change -> change.getString("action")).toList());
+    for (JsonObject change : changes) {
+      assertEquals(id, change.getString("id"));
+      assertEquals("NOTIFIED_EVENT", change.getString("name"));
+    }
+    assertEquals(createdEtag, changes.get(0).getString("version"));
+    assertEquals(updatedEtag, changes.get(1).getString("version"));
+    assertTrue(!changes.get(2).containsKey("version"));
+  }
+
+  @Test
+  public void testTenantUpgradeInvalidatesCache() throws Exception {
+    EventConfigCache cache = EventConfigCache.getInstance();
+    cache.putByName(TENANT_ID, cache.generation(TENANT_ID), "stale_event",
+      List.of(new EventEntity().withName("STALE_EVENT").withActive(true)));
+    assertTrue(cache.getByName(TENANT_ID, "stale_event") != null);
+
+    TenantClient tenantClient = new TenantClient(String.format(OKAPI_URL, port), TENANT_ID, OKAPI_TOKEN_VAL);
+    TenantAttributes upgrade = new TenantAttributes()
+      .withModuleFrom("mod-event-config-1.0.0")
+      .withModuleTo("mod-event-config-1.0.0");
+    CompletableFuture<String> job = new CompletableFuture<>();
+    tenantClient.postTenant(upgrade, ar -> {
+      if (ar.failed()) {
+        job.completeExceptionally(ar.cause());
+      } else {
+        job.complete(ar.result().bodyAsJson(TenantJob.class).getId());
+      }
+    });
+    CompletableFuture<TenantJob> completed = new CompletableFuture<>();
+    tenantClient.getTenantByOperationId(job.get(10, TimeUnit.SECONDS), 10000, ar -> {
+      if (ar.failed()) {
+        completed.completeExceptionally(ar.cause());
+      } else {
+        completed.complete(ar.result().bodyAsJson(TenantJob.class));
+      }
+    });
+    assertTrue(completed.get(20, TimeUnit.SECONDS).getComplete());
+
+    assertTrue(cache.getByName(TENANT_ID, "stale_event") == null);
+  }
+
+  @Test
+  public void testChangesOfOtherInstances() throws Exception {
+    String id = UUID.randomUUID().toString();
+    List<JsonObject> changes = new CopyOnWriteArrayList<>();
+    MessageConsumer<JsonObject> consumer = vertx.eventBus().<JsonObject>consumer(EventConfigChanges.ADDRESS,
+      message -> {
+        if (TENANT_ID.equals(message.headers().get(EventConfigChanges.TENANT_HEADER))
+          && id.equals(message.body().getString("id"))) {
+          changes.add(message.body());
+        }
+      });
+    try {
+      consumer.completion().toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+      // the notification the trigger sends for an update made through another instance
+      JsonObject notification = new JsonObject()
+        .put("tenant", TENANT_ID)
+        .put("id", id)
+        .put("operation", "UPDATE");
+      PostgresClient.getInstance(vertx).execute("SELECT pg_notify($1, $2)",
+          Tuple.of(EventConfigNotifications.CHANNEL, notification.encode()))
+        .toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while (changes.isEmpty() && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+      Thread.sleep(200);
+      assertEquals(1, changes.size());
+      assertEquals("UPDATED", changes.get(0).getString("action"));
+      assertTrue(!changes.get(0).containsKey("version"));
+    } finally {
+      consumer.unregister();
+    }
+  }
+
+  @Test
+  public void testCacheInvalidationAcrossInstances() throws Exception {
+    JsonObject config = PostgresClient.getInstance(vertx).getConnectionConfig();
+    EventConfigCache cache1 = new EventConfigCache(16);
+    EventConfigCache cache2 = new EventConfigCache(16);
+    // instance2 reads from a replica, the test database stands in for it
+    ReadReplica readReplica2 = new ReadReplica(config.getString("host"), config.getInteger("port"),
+      60_000, 0, System::nanoTime);
+    EventConfigNotifications instance1 =
+      new EventConfigNotifications(cache1, new ReadReplica(null, 0, 0, 0, System::nanoTime));
+    EventConfigNotifications instance2 = new EventConfigNotifications(cache2, readReplica2);
+    try {
+      instance1.start(vertx, config).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+      instance2.start(vertx, config).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+      long generation1 = cache1.generation(TENANT_ID);
+      long generation2 = cache2.generation(TENANT_ID);
+      assertTrue(readReplica2.useReader(TENANT_ID));
+
+      requestPostEventConfig(getJsonEntity(null, "LISTENED_EVENT", true, new JsonArray()))
+        .then()
+        .statusCode(HttpStatus.SC_CREATED);
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while ((cache1.generation(TENANT_ID) == generation1 || cache2.generation(TENANT_ID) == generation2)
+        && System.currentTimeMillis() < deadline) {
+        Thread.sleep(20);
+      }
+      assertTrue(cache1.generation(TENANT_ID) > generation1);
+      assertTrue(cache2.generation(TENANT_ID) > generation2);
+      // the write went through another instance, the notification keeps the reads of instance2 on the primary
+      assertFalse(readReplica2.useReader(TENANT_ID));
+    } finally {
+      instance1.stop();
+      instance2.stop();
+    }
+  }
+
+  @Test
+  public void testMetrics() {
+    requestGetEventByName("RESET_PASSWORD_EVENT")
+      .then()
+      .statusCode(HttpStatus.SC_OK);
+    requestGet
+      .get(restPath + "?query=invalid_sql")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+
+    String metrics = RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .get("/event-config-admin/metrics")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString();
+    assertTrue(metrics.contains("event_config_requests_seconds_count{operation=\"getEventConfig\",status=\"200\"}"));
+    assertTrue(metrics.contains("event_config_db_seconds_count{operation=\"getEventConfig\"}"));
+    assertTrue(metrics.contains("event_config_serialization_seconds_count{operation=\"getEventConfig\"}"));
+    assertTrue(metrics.contains("event_config_errors_total{branch=\"invalid_query\"}"));
+  }
+
+  @Test
+  public void testSlowQueries() throws Exception {
+    // surefire sets EVENT_CONFIG_SLOW_QUERY_MS=0 and EVENT_CONFIG_SLOW_QUERY_EXPLAIN=true, every query is kept
+    getEventEntries("active==true and name==SLOW_QUERY_EVENT");
+
+    JsonObject slowQuery = null;
+    long deadline = System.currentTimeMillis() + 5000;
+    while (System.currentTimeMillis() < deadline) {
+      slowQuery = getSlowQueries(50).getJsonArray("slowQueries").stream()
+        .map(JsonObject.class::cast)
+        .filter(query -> "active== ? and name== ?".equals(query.getString("cql"))
+          && "page".equals(query.getString("statement")))
+        .findFirst()
+        .orElse(null);
+      if (slowQuery != null && slowQuery.getString("plan") != null) {
+        break;
+      }
+      Thread.sleep(20);
+    }
+    assertTrue(slowQuery != null);
+    assertTrue(slowQuery.getString("sql").contains("event_configurations"));
+    assertTrue(slowQuery.getInteger("count") >= 1);
+    assertEquals(0, (int) slowQuery.getInteger("lastRows"));
+    assertTrue(slowQuery.getString("plan") != null);
+
+    JsonObject slowQueries = getSlowQueries(5);
+    assertTrue(slowQueries.getJsonArray("slowQueries").size() <= 5);
+    assertTrue(slowQueries.getInteger("totalRecords") >= slowQueries.getJsonArray("slowQueries").size());
+
+    RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .queryParam("limit", 0)
+      .get("/event-config-admin/slow-queries")
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
   @Test
   public void testGetEventConfigByIncorrectName() {
     String configName = "password";
@@ -444,6 +1223,91 @@ public class EventConfigAPIsTest {
       .statusCode(HttpStatus.SC_BAD_REQUEST);
   }
 
+  @Test
+  public void testEventConfigHistory() throws InterruptedException {
+    String id = UUID.randomUUID().toString();
+    JsonArray templates = createTemplates("email", "text/html");
+    requestPostEventConfig(getJsonEntity(id, "HISTORY", true, templates))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    // versions within the same millisecond could not be told apart by asOf
+    Thread.sleep(10);
+    requestPutEventConfig(id, getJsonEntity(id, "HISTORY", false, templates))
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+    Thread.sleep(10);
+    requestDeleteEntityById(id)
+      .then()
+      .statusCode(HttpStatus.SC_NO_CONTENT);
+
+    JsonObject history = new JsonObject(requestGet
+      .get(String.format(PATH_TEMPLATE, restPath, id) + "/history")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+    assertEquals(3, (int) history.getInteger("totalRecords"));
+    JsonArray versions = history.getJsonArray("versions");
+    assertEquals("CREATED", versions.getJsonObject(0).getString("operation"));
+    assertEquals("HISTORY", versions.getJsonObject(0).getJsonObject("changed").getString("name"));
+    assertEquals("UPDATED", versions.getJsonObject(1).getString("operation"));
+    assertEquals(false, versions.getJsonObject(1).getJsonObject("changed").getBoolean("active"));
+    assertTrue(!versions.getJsonObject(1).getJsonObject("changed").containsKey("templates"));
+    assertEquals("DELETED", versions.getJsonObject(2).getString("operation"));
+
+    String created = versions.getJsonObject(0).getString("changedAt");
+    JsonObject asCreated = new JsonObject(RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .queryParam("asOf", created)
+      .get(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+    assertEquals(true, asCreated.getBoolean("active"));
+    assertEquals(1, asCreated.getJsonArray("templates").size());
+
+    RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .queryParam("asOf", versions.getJsonObject(2).getString("changedAt"))
+      .get(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_NOT_FOUND);
+    RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .queryParam("asOf", "yesterday")
+      .get(String.format(PATH_TEMPLATE, restPath, id))
+      .then()
+      .statusCode(HttpStatus.SC_BAD_REQUEST);
+  }
+
+  @Test
+  public void testInvalidTemplates() {
+    requestPostEventConfig(getJsonEntity(null, "INVALID_FORMAT", true, createTemplates("email", "application/pdf")))
+      .then()
+      .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+    JsonArray duplicates = createTemplates("email", "text/html").addAll(createTemplates("email", "text/html"));
+    requestPostEventConfig(getJsonEntity(null, "DUPLICATE_TEMPLATES", true, duplicates))
+      .then()
+      .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+
+    String id = UUID.randomUUID().toString();
+    requestPostEventConfig(getJsonEntity(id, "VALID_TEMPLATES", true, createTemplates("email", "text/html")))
+      .then()
+      .statusCode(HttpStatus.SC_CREATED);
+    requestPutEventConfig(id, getJsonEntity(id, "VALID_TEMPLATES", true, createTemplates("fax", "text/html")))
+      .then()
+      .statusCode(HttpStatus.SC_UNPROCESSABLE_ENTITY);
+    assertEquals("email", getEventEntries("name==VALID_TEMPLATES").getJsonArray("eventEntity").getJsonObject(0)
+      .getJsonArray("templates").getJsonObject(0).getString("deliveryChannel"));
+  }
+
   private Response requestPostEventConfig(JsonObject expectedEntity) {
     return request.body(expectedEntity.toString())
       .when()
@@ -479,6 +1343,29 @@ public class EventConfigAPIsTest {
       .get(String.format(PATH_TEMPLATE, restPath, "?query=name==" + name));
   }
 
+  private JsonObject getSlowQueries(int limit) {
+    return new JsonObject(RestAssured.given()
+      .port(port)
+      .header(OKAPI_HEADER_TENANT, TENANT_ID)
+      .queryParam("limit", limit)
+      .get("/event-config-admin/slow-queries")
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .asString());
+  }
+
+  private JsonObject getEventEntries(String query) {
+    return new JsonObject(requestGet
+      .when()
+      .get(restPath + "?query=" + query)
+      .then()
+      .statusCode(HttpStatus.SC_OK)
+      .extract()
+      .response()
+      .getBody().print());
+  }
+
   private JsonArray createTemplates(String deliveryChannel, String outputFormat) {
     Template template = new Template()
       .withTemplateId(UUID.randomUUID().toString())
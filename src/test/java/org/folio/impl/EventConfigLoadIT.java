@@ -0,0 +1,301 @@
+package org.folio.impl;
+
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TENANT;
+import static org.folio.rest.RestVerticle.OKAPI_HEADER_TOKEN;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.folio.postgres.testing.PostgresTesterContainer;
+import org.folio.rest.RestVerticle;
+import org.folio.rest.client.TenantClient;
+import org.folio.rest.jaxrs.model.TenantAttributes;
+import org.folio.rest.jaxrs.model.TenantJob;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.tools.utils.NetworkUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+
+/**
+ * Load test replaying a mix of event configuration requests of many tenants at a fixed rate
+ * against the RestVerticle and the embedded postgres-testing database (requires Docker).
+ * <p>
+ * Requests are scheduled open-loop: the latency of a request is measured from the time it was
+ * due, so a stalled server shows up in the tail instead of lowering the request rate.
+ * Run with {@code mvn -Pload-test verify}, see the {@code load-test} profile for the parameters.
+ */
+public class EventConfigLoadIT {
+  private static final Logger logger = LogManager.getLogger(EventConfigLoadIT.class);
+
+  private static final String OKAPI_TOKEN = "test_token";
+  private static final String PATH = "/eventConfig";
+  private static final long TIMEOUT_SECONDS = 300;
+  private static final long TICK_MILLIS = 10;
+  private static final List<String> NAMES = List.of("CREATE_PASSWORD_EVENT", "RESET_PASSWORD_EVENT",
+    "PASSWORD_CREATED_EVENT", "PASSWORD_CHANGED_EVENT", "USERNAME_LOCATED_EVENT");
+
+  private static final int TENANTS = Integer.getInteger("load.tenants", 5);
+  private static final int RATE = Integer.getInteger("load.rate", 200);
+  private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+  private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+  private static final String MIX = System.getProperty("load.mix", "name=60,id=20,page=15,write=5");
+  private static final long MAX_P99_MILLIS = Long.getLong("load.maxP99Ms", 0);
+
+  private enum Operation {
+    NAME, ID, PAGE, WRITE
+  }
+
+  private static Vertx vertx;
+  private static WebClient client;
+  private static int port;
+  private static final List<String> tenants = new ArrayList<>();
+  private static final Map<String, List<String>> ids = new ConcurrentHashMap<>();
+  private static final Map<String, JsonObject> writable = new ConcurrentHashMap<>();
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    vertx = Vertx.vertx();
+    port = NetworkUtils.nextFreePort();
+    PostgresClient.setPostgresTester(new PostgresTesterContainer());
+    await(vertx.deployVerticle(RestVerticle.class.getName(),
+      new DeploymentOptions().setConfig(new JsonObject().put("http.port", port))));
+    client = WebClient.create(vertx, new WebClientOptions().setMaxPoolSize(100));
+    for (int i = 0; i < TENANTS; i++) {
+      String tenant = "load" + i;
+      tenants.add(tenant);
+      await(postTenant(tenant));
+      JsonObject entity = new JsonObject().put("name", "LOAD_TEST_EVENT").put("active", true).put("templates", new JsonArray());
+      HttpResponse<Buffer> created = await(request(HttpMethod.POST, tenant, PATH).sendJsonObject(entity));
+      writable.put(tenant, created.bodyAsJsonObject());
+      HttpResponse<Buffer> all = await(request(HttpMethod.GET, tenant, PATH).addQueryParam("limit", "100").send());
+      ids.put(tenant, all.bodyAsJsonObject().getJsonArray("eventEntity").stream()
+        .map(entry -> ((JsonObject) entry).getString("id"))
+        .toList());
+    }
+  }
+
+  @AfterClass
+  public static void tearDownClass() throws Exception {
+    await(vertx.close());
+    PostgresClient.stopPostgresTester();
+  }
+
+  @Test
+  public void replayTraffic() throws Exception {
+    Map<Operation, Integer> weights = parseMix(MIX);
+    logger.info("replayTraffic:: {} tenants, {} requests/s, {} s, mix {}", TENANTS, RATE, DURATION_SECONDS, weights);
+    run(weights, WARMUP_SECONDS, null);
+    Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new Recorder());
+    }
+    long elapsedNanos = run(weights, DURATION_SECONDS, recorders);
+
+    JsonObject report = new JsonObject()
+      .put("tenants", TENANTS)
+      .put("targetRate", RATE)
+      .put("durationSeconds", DURATION_SECONDS);
+    Recorder all = new Recorder();
+    for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+      all.addAll(entry.getValue());
+      report.put(entry.getKey().name().toLowerCase(), entry.getValue().report(elapsedNanos));
+    }
+    report.put("all", all.report(elapsedNanos));
+    logger.info("replayTraffic:: Result {}", report.encodePrettily());
+    Files.writeString(Path.of("target", "load-test-result.json"), report.encodePrettily());
+
+    assertTrue("failed requests: " + all.errors, all.errors.get() == 0);
+    if (MAX_P99_MILLIS > 0) {
+      double p99 = all.report(elapsedNanos).getDouble("p99Ms");
+      assertTrue("p99 " + p99 + " ms exceeds " + MAX_P99_MILLIS + " ms", p99 <= MAX_P99_MILLIS);
+    }
+  }
+
+  /**
+   * Issues requests at the target rate for the duration and waits for all of them to complete,
+   * returns the elapsed time.
+   */
+  private long run(Map<Operation, Integer> weights, int seconds, Map<Operation, Recorder> recorders) throws Exception {
+    long total = (long) RATE * seconds;
+    AtomicLong issued = new AtomicLong();
+    AtomicLong completed = new AtomicLong();
+    Promise<Void> done = Promise.promise();
+    long start = System.nanoTime();
+    vertx.setPeriodic(TICK_MILLIS, timer -> {
+      long elapsed = System.nanoTime() - start;
+      long due = Math.min(total, elapsed * RATE / TimeUnit.SECONDS.toNanos(1));
+      while (issued.get() < due) {
+        long dueAt = start + issued.getAndIncrement() * TimeUnit.SECONDS.toNanos(1) / RATE;
+        Operation operation = pick(weights);
+        send(operation).onComplete(ar -> {
+          if (recorders != null) {
+            recorders.get(operation).record(System.nanoTime() - dueAt, ar.succeeded());
+          }
+          if (completed.incrementAndGet() == total) {
+            done.complete();
+          }
+        });
+      }
+      if (issued.get() >= total) {
+        vertx.cancelTimer(timer);
+      }
+    });
+    await(done.future());
+    return System.nanoTime() - start;
+  }
+
+  private Future<Void> send(Operation operation) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    String tenant = tenants.get(random.nextInt(tenants.size()));
+    Future<HttpResponse<Buffer>> response = switch (operation) {
+      case NAME -> request(HttpMethod.GET, tenant, PATH)
+        .addQueryParam("query", "name==" + NAMES.get(random.nextInt(NAMES.size())))
+        .send();
+      case ID -> {
+        List<String> tenantIds = ids.get(tenant);
+        yield request(HttpMethod.GET, tenant, PATH + "/" + tenantIds.get(random.nextInt(tenantIds.size()))).send();
+      }
+      case PAGE -> request(HttpMethod.GET, tenant, PATH)
+        .addQueryParam("query", "active==true sortBy name")
+        .addQueryParam("offset", String.valueOf(random.nextInt(3)))
+        .addQueryParam("limit", "2")
+        .send();
+      case WRITE -> {
+        JsonObject entity = writable.get(tenant).copy().put("active", random.nextBoolean());
+        entity.remove("metadata");
+        yield request(HttpMethod.PUT, tenant, PATH + "/" + entity.getString("id")).sendJsonObject(entity);
+      }
+    };
+    return response.compose(result -> result.statusCode() < 300
+      ? Future.succeededFuture()
+      : Future.failedFuture(operation + " returned " + result.statusCode() + ": " + result.bodyAsString()));
+  }
+
+  private static HttpRequest<Buffer> request(HttpMethod method, String tenant, String path) {
+    return client.request(method, port, "localhost", path)
+      .putHeader(OKAPI_HEADER_TENANT, tenant)
+      .putHeader(OKAPI_HEADER_TOKEN, OKAPI_TOKEN);
+  }
+
+  private static Operation pick(Map<Operation, Integer> weights) {
+    int sum = weights.values().stream().mapToInt(Integer::intValue).sum();
+    int value = ThreadLocalRandom.current().nextInt(sum);
+    for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+      value -= entry.getValue();
+      if (value < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException();
+  }
+
+  private static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String part : mix.split(",")) {
+      String[] weight = part.trim().split("=");
+      weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+    }
+    return weights;
+  }
+
+  private static Future<Void> postTenant(String tenant) {
+    TenantClient tenantClient = new TenantClient("http://localhost:" + port, tenant, OKAPI_TOKEN);
+    Promise<Void> promise = Promise.promise();
+    try {
+      tenantClient.postTenant(new TenantAttributes().withModuleTo("mod-event-config-1.0.0"), postResult -> {
+        if (postResult.failed()) {
+          promise.fail(postResult.cause());
+          return;
+        }
+        String jobId = postResult.result().bodyAsJson(TenantJob.class).getId();
+        tenantClient.getTenantByOperationId(jobId, 10000, getResult -> {
+          if (getResult.failed()) {
+            promise.fail(getResult.cause());
+            return;
+          }
+          promise.complete();
+        });
+      });
+    } catch (Exception e) {
+      promise.fail(e);
+    }
+    return promise.future();
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Latencies of one operation, kept in full as a run has at most a few hundred thousand requests.
+   */
+  private static final class Recorder {
+    private long[] latencies = new long[1024];
+    private int size;
+    private final AtomicLong errors = new AtomicLong();
+
+    synchronized void record(long latencyNanos, boolean succeeded) {
+      if (!succeeded) {
+        errors.incrementAndGet();
+      }
+      if (size == latencies.length) {
+        latencies = Arrays.copyOf(latencies, size * 2);
+      }
+      latencies[size++] = latencyNanos;
+    }
+
+    synchronized void addAll(Recorder other) {
+      for (int i = 0; i < other.size; i++) {
+        record(other.latencies[i], true);
+      }
+      errors.addAndGet(other.errors.get());
+    }
+
+    synchronized JsonObject report(long elapsedNanos) {
+      long[] sorted = Arrays.copyOf(latencies, size);
+      Arrays.sort(sorted);
+      return new JsonObject()
+        .put("requests", size)
+        .put("errors", errors.get())
+        .put("throughput", size * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+        .put("p50Ms", percentile(sorted, 0.5))
+        .put("p99Ms", percentile(sorted, 0.99))
+        .put("p999Ms", percentile(sorted, 0.999))
+        .put("maxMs", percentile(sorted, 1));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+      if (sorted.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile * sorted.length) - 1;
+      return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+  }
+}
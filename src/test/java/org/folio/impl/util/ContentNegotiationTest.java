@@ -0,0 +1,107 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.folio.rest.impl.util.ContentNegotiation;
+import org.folio.rest.impl.util.TaggedEntity;
+import org.folio.rest.jaxrs.model.EventConfigCollection;
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.junit.Test;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+public class ContentNegotiationTest {
+
+  @Test
+  public void jsonTest() {
+    TaggedEntity<EventConfigCollection> entity = TaggedEntity.of(collection(1));
+    Response response = ContentNegotiation.of("application/json, */*", "gzip").respond(entity, null);
+
+    assertThat(response.getStatus(), is(200));
+    assertThat(response.getEntity(), is(entity.getJson()));
+    assertThat(response.getHeaderString(HttpHeaders.ETAG), is(entity.getEtag()));
+    assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is((String) null));
+  }
+
+  @Test
+  public void cborTest() throws IOException {
+    TaggedEntity<EventConfigCollection> entity = TaggedEntity.of(collection(1));
+    Response response = ContentNegotiation.of("application/cbor", null).respond(entity, null);
+
+    assertThat(response.getMediaType().toString(), is(ContentNegotiation.APPLICATION_CBOR));
+    assertThat(new CBORMapper().readValue((byte[]) response.getEntity(), EventConfigCollection.class).getEventEntity()
+      .get(0).getName(), is("EVENT_0"));
+    assertThat(response.getHeaderString(HttpHeaders.ETAG), not(entity.getEtag()));
+  }
+
+  @Test
+  public void gzipTest() throws IOException {
+    TaggedEntity<EventConfigCollection> entity = TaggedEntity.of(collection(50));
+    Response response = ContentNegotiation.of(null, "deflate;q=0.5, gzip").respond(entity, null);
+
+    assertThat(response.getHeaderString(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream((byte[]) response.getEntity()))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8), is(entity.getJson()));
+    }
+
+    String etag = response.getHeaderString(HttpHeaders.ETAG);
+    assertThat(ContentNegotiation.of(null, "gzip").respond(entity, etag).getStatus(), is(304));
+    assertThat(ContentNegotiation.of(null, null).respond(entity, etag).getStatus(), is(200));
+  }
+
+  @Test
+  public void qualityZeroTest() {
+    ContentNegotiation negotiation = ContentNegotiation.of("application/cbor;q=0", "gzip;q=0");
+
+    assertThat(negotiation.getMediaType(), is(MediaType.APPLICATION_JSON));
+    assertThat(negotiation.respond(TaggedEntity.of(collection(50)), null)
+      .getHeaderString(HttpHeaders.CONTENT_ENCODING), is((String) null));
+  }
+
+  @Test
+  public void highestQualityTest() {
+    assertThat(ContentNegotiation.of("application/json, application/cbor;q=0.1", null).getMediaType(),
+      is(MediaType.APPLICATION_JSON));
+    assertThat(ContentNegotiation.of("application/json;q=0.5, application/cbor", null).getMediaType(),
+      is(ContentNegotiation.APPLICATION_CBOR));
+    assertThat(ContentNegotiation.of("application/cbor, application/json", null).getMediaType(),
+      is(MediaType.APPLICATION_JSON));
+    assertThat(ContentNegotiation.of("application/x-jackson-smile, */*", null).getMediaType(),
+      is(ContentNegotiation.APPLICATION_SMILE));
+    assertThat(ContentNegotiation.of("application/cbor;q=0.5, */*", null).getMediaType(),
+      is(MediaType.APPLICATION_JSON));
+    assertThat(ContentNegotiation.of("application/cbor;q=0.5, application/x-jackson-smile;q=0.8", null)
+      .getMediaType(), is(ContentNegotiation.APPLICATION_SMILE));
+
+    TaggedEntity<EventConfigCollection> entity = TaggedEntity.of(collection(50));
+    assertThat(encoding(ContentNegotiation.of(null, "deflate, gzip;q=0.1"), entity), is("deflate"));
+    assertThat(encoding(ContentNegotiation.of(null, "gzip, identity"), entity), is((String) null));
+    assertThat(encoding(ContentNegotiation.of(null, "gzip;q=0.5, *"), entity), is((String) null));
+    assertThat(encoding(ContentNegotiation.of(null, "gzip;q=0.5, identity;q=0"), entity), is("gzip"));
+  }
+
+  private static String encoding(ContentNegotiation negotiation, TaggedEntity<?> entity) {
+    return negotiation.respond(entity, null).getHeaderString(HttpHeaders.CONTENT_ENCODING);
+  }
+
+  private static EventConfigCollection collection(int size) {
+    List<EventEntity> entities = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      entities.add(new EventEntity().withName("EVENT_" + i).withActive(true));
+    }
+    return new EventConfigCollection().withEventEntity(entities).withTotalRecords(size);
+  }
+}
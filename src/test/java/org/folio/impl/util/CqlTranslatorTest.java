@@ -0,0 +1,48 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.hamcrest.core.StringContains.containsString;
+
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+import org.folio.rest.impl.util.CqlTranslator;
+import org.junit.Test;
+
+public class CqlTranslatorTest {
+
+  private static final String EVENT_CONFIGS_JSONB = "event_configurations.jsonb";
+
+  @Test
+  public void toSqlTest() throws QueryValidationException {
+    CqlTranslator translator = new CqlTranslator(EVENT_CONFIGS_JSONB, 2);
+    SqlSelect sqlSelect = translator.toSql("active==true sortBy name");
+
+    assertThat(sqlSelect.getWhere(), containsString("event_configurations.jsonb"));
+    assertThat(sqlSelect.getOrderBy().isEmpty(), is(false));
+    assertThat(translator.toSql("active==true sortBy name"), sameInstance(sqlSelect));
+  }
+
+  @Test
+  public void evictionTest() throws QueryValidationException {
+    CqlTranslator translator = new CqlTranslator(EVENT_CONFIGS_JSONB, 1);
+    SqlSelect first = translator.toSql("active==true");
+    translator.toSql("active==false");
+
+    assertThat(translator.toSql("active==true"), not(sameInstance(first)));
+  }
+
+  @Test
+  public void disabledTest() throws QueryValidationException {
+    CqlTranslator translator = new CqlTranslator(EVENT_CONFIGS_JSONB, 0);
+
+    assertThat(translator.toSql("active==true"), not(sameInstance(translator.toSql("active==true"))));
+  }
+
+  @Test(expected = QueryValidationException.class)
+  public void invalidQueryTest() throws QueryValidationException {
+    new CqlTranslator(EVENT_CONFIGS_JSONB, 2).toSql("name==");
+  }
+}
@@ -0,0 +1,93 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.folio.rest.impl.util.EventConfigCache;
+import org.folio.rest.impl.util.TaggedEntity;
+import org.folio.rest.jaxrs.model.EventConfigEntity;
+import org.folio.rest.jaxrs.model.EventEntity;
+import org.junit.Test;
+
+public class EventConfigCacheTest {
+
+  private static final String TENANT_ID = "diku";
+
+  @Test
+  public void getByIdTest() {
+    EventConfigCache cache = new EventConfigCache(2);
+    TaggedEntity<EventConfigEntity> entity = entity();
+    cache.putById(TENANT_ID, cache.generation(TENANT_ID), entity);
+
+    assertThat(cache.getById(TENANT_ID, id(entity)), is(entity));
+    assertThat(cache.getById("other", id(entity)), nullValue());
+  }
+
+  @Test
+  public void getByNameTest() {
+    EventConfigCache cache = new EventConfigCache(2);
+    List<EventEntity> entities = List.of(new EventEntity().withName("RESET_PASSWORD_EVENT"));
+    cache.putByName(TENANT_ID, cache.generation(TENANT_ID), "reset_password_event", entities);
+    cache.putByName(TENANT_ID, cache.generation(TENANT_ID), "unknown", List.of());
+
+    assertThat(cache.getByName(TENANT_ID, "reset_password_event"), is(entities));
+    assertThat(cache.getByName(TENANT_ID, "unknown").isEmpty(), is(true));
+    assertThat(cache.getByName(TENANT_ID, "other"), nullValue());
+  }
+
+  @Test
+  public void evictionTest() {
+    EventConfigCache cache = new EventConfigCache(2);
+    TaggedEntity<EventConfigEntity> first = entity();
+    TaggedEntity<EventConfigEntity> second = entity();
+    TaggedEntity<EventConfigEntity> third = entity();
+    long generation = cache.generation(TENANT_ID);
+    cache.putById(TENANT_ID, generation, first);
+    cache.putById(TENANT_ID, generation, second);
+    cache.getById(TENANT_ID, id(first));
+    cache.putById(TENANT_ID, generation, third);
+
+    assertThat(cache.getById(TENANT_ID, id(first)), is(first));
+    assertThat(cache.getById(TENANT_ID, id(second)), nullValue());
+    assertThat(cache.getById(TENANT_ID, id(third)), is(third));
+  }
+
+  @Test
+  public void invalidateTest() {
+    EventConfigCache cache = new EventConfigCache(2);
+    TaggedEntity<EventConfigEntity> entity = entity();
+    long staleGeneration = cache.generation(TENANT_ID);
+    cache.putById(TENANT_ID, staleGeneration, entity);
+
+    cache.invalidate(TENANT_ID);
+    assertThat(cache.getById(TENANT_ID, id(entity)), nullValue());
+
+    cache.putById(TENANT_ID, staleGeneration, entity);
+    assertThat(cache.getById(TENANT_ID, id(entity)), nullValue());
+  }
+
+  @Test
+  public void disabledTest() {
+    EventConfigCache cache = new EventConfigCache(0);
+    TaggedEntity<EventConfigEntity> entity = entity();
+    cache.putById(TENANT_ID, cache.generation(TENANT_ID), entity);
+
+    assertThat(cache.isEnabled(), is(false));
+    assertThat(cache.getById(TENANT_ID, id(entity)), nullValue());
+  }
+
+  private static TaggedEntity<EventConfigEntity> entity() {
+    return TaggedEntity.of(new EventConfigEntity()
+      .withId(UUID.randomUUID().toString())
+      .withName(UUID.randomUUID().toString())
+      .withActive(true));
+  }
+
+  private static String id(TaggedEntity<EventConfigEntity> entity) {
+    return entity.getEntity().getId();
+  }
+}
@@ -6,9 +6,15 @@ import static org.hamcrest.core.Is.is;
 import org.folio.HttpStatus;
 import org.folio.cql2pgjson.exception.CQL2PgJSONException;
 import org.folio.rest.impl.util.EventConfigHelper;
+import org.folio.rest.impl.util.TaggedEntity;
+import org.folio.rest.impl.util.TenantBusyException;
+import org.folio.rest.jaxrs.model.EventConfigEntity;
 import org.folio.rest.persist.cql.CQLQueryValidationException;
 import org.junit.Test;
 
+import io.vertx.pgclient.PgException;
+
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -24,9 +30,67 @@ public class EventConfigHelperTest {
     assertThat(response.getStatus(), is(HttpStatus.SC_BAD_REQUEST));
     assertThat(response.getMediaType().toString(), is(MediaType.TEXT_PLAIN));
 
+    response = EventConfigHelper.mapException(new PgException("duplicate key", "ERROR", "23505", "Key exists"));
+    assertThat(response.getStatus(), is(HttpStatus.SC_BAD_REQUEST));
+    assertThat(response.getMediaType().toString(), is(MediaType.TEXT_PLAIN));
+
+    response = EventConfigHelper.mapException(new TenantBusyException("diku"));
+    assertThat(response.getStatus(), is(HttpStatus.SC_SERVICE_UNAVAILABLE));
+    assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is("1"));
+
     response = EventConfigHelper.mapException(new NullPointerException());
     assertThat(response.getStatus(), is(HttpStatus.SC_INTERNAL_SERVER_ERROR));
     assertThat(response.getMediaType().toString(), is(MediaType.TEXT_PLAIN));
   }
 
+  @Test
+  public void respondWithETagTest() {
+    TaggedEntity<EventConfigEntity> entity = TaggedEntity.of(new EventConfigEntity().withName("RESET").withActive(true));
+
+    Response response = EventConfigHelper.respondWithETag(entity, null);
+    assertThat(response.getStatus(), is(HttpStatus.SC_OK));
+    assertThat(response.getHeaderString(HttpHeaders.ETAG), is(entity.getEtag()));
+    assertThat(response.getEntity(), is(entity.getJson()));
+
+    response = EventConfigHelper.respondWithETag(entity, entity.getEtag());
+    assertThat(response.getStatus(), is(HttpStatus.SC_NOT_MODIFIED));
+    assertThat(response.getHeaderString(HttpHeaders.ETAG), is(entity.getEtag()));
+  }
+
+  @Test
+  public void etagMatchesTest() {
+    String etag = TaggedEntity.of(new EventConfigEntity().withName("RESET").withActive(true)).getEtag();
+    String otherEtag = TaggedEntity.of(new EventConfigEntity().withName("RESET").withActive(false)).getEtag();
+
+    assertThat(etag.equals(otherEtag), is(false));
+    assertThat(EventConfigHelper.etagMatches(etag, etag), is(true));
+    assertThat(EventConfigHelper.etagMatches("W/" + etag, etag), is(true));
+    assertThat(EventConfigHelper.etagMatches(otherEtag + ", " + etag, etag), is(true));
+    assertThat(EventConfigHelper.etagMatches("*", etag), is(true));
+    assertThat(EventConfigHelper.etagMatches(otherEtag, etag), is(false));
+    assertThat(EventConfigHelper.etagMatches(null, etag), is(false));
+  }
+
+  @Test
+  public void etagMatchesStrongTest() {
+    String etag = TaggedEntity.of(new EventConfigEntity().withName("RESET").withActive(true)).getEtag();
+    String otherEtag = TaggedEntity.of(new EventConfigEntity().withName("RESET").withActive(false)).getEtag();
+
+    assertThat(EventConfigHelper.etagMatchesStrong(etag, etag), is(true));
+    assertThat(EventConfigHelper.etagMatchesStrong(otherEtag + ", " + etag, etag), is(true));
+    assertThat(EventConfigHelper.etagMatchesStrong("*", etag), is(true));
+    assertThat(EventConfigHelper.etagMatchesStrong("W/" + etag, etag), is(false));
+    assertThat(EventConfigHelper.etagMatchesStrong(otherEtag, etag), is(false));
+    assertThat(EventConfigHelper.etagMatchesStrong("*", null), is(false));
+    assertThat(EventConfigHelper.etagMatchesStrong(null, etag), is(false));
+  }
+
+  @Test
+  public void isUuidTest() {
+    assertThat(EventConfigHelper.isUuid("0b1b7cac-f6fe-45ec-99f5-6758d54a51d7"), is(true));
+    assertThat(EventConfigHelper.isUuid("0002"), is(false));
+    assertThat(EventConfigHelper.isUuid("1-1-1-1-1"), is(false));
+    assertThat(EventConfigHelper.isUuid(null), is(false));
+  }
+
 }
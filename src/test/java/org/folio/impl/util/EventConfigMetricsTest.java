@@ -0,0 +1,57 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import javax.ws.rs.core.Response;
+
+import org.folio.rest.impl.util.EventConfigMetrics;
+import org.junit.Test;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+
+public class EventConfigMetricsTest {
+
+  @Test
+  public void timedTest() {
+    EventConfigMetrics metrics = metrics();
+    metrics.timed("getEventConfig", ar -> {}).handle(Future.succeededFuture(Response.ok().build()));
+    metrics.timed("getEventConfig", ar -> {}).handle(Future.failedFuture("failure"));
+
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.REQUESTS)
+      .tags("operation", "getEventConfig", "status", "200").timer().count(), is(1L));
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.REQUESTS)
+      .tags("operation", "getEventConfig", "status", "failed").timer().count(), is(1L));
+  }
+
+  @Test
+  public void timeDbTest() {
+    EventConfigMetrics metrics = metrics();
+    String result = metrics.timeDb("getEventConfigById", () -> Future.succeededFuture("result")).result();
+
+    assertThat(result, is("result"));
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.DB)
+      .tag("operation", "getEventConfigById").timer().count(), is(1L));
+  }
+
+  @Test
+  public void countersTest() {
+    EventConfigMetrics metrics = metrics();
+    metrics.cacheAccess("name", true);
+    metrics.cacheAccess("name", true);
+    metrics.cacheAccess("name", false);
+    metrics.error("unique_violation");
+
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.CACHE)
+      .tags("cache", "name", "result", "hit").counter().count(), is(2.0));
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.CACHE)
+      .tags("cache", "name", "result", "miss").counter().count(), is(1.0));
+    assertThat(metrics.scrape().contains("event_config_errors_total{branch=\"unique_violation\"} 1.0"), is(true));
+  }
+
+  private static EventConfigMetrics metrics() {
+    return new EventConfigMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+  }
+}
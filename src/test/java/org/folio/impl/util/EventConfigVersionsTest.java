@@ -0,0 +1,53 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.folio.rest.impl.util.EventConfigVersions;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class EventConfigVersionsTest {
+
+  private static final JsonObject CREATED = new JsonObject()
+    .put("operation", "CREATED")
+    .put("changed", new JsonObject().put("id", "1").put("name", "RESET").put("active", true)
+      .put("templates", new JsonArray().add("a")))
+    .put("removed", new JsonArray());
+  private static final JsonObject UPDATED = new JsonObject()
+    .put("operation", "UPDATED")
+    .put("changed", new JsonObject().put("active", false).put("templates", new JsonArray().add("b")))
+    .put("removed", new JsonArray().add("name"));
+  private static final JsonObject DELETED = new JsonObject()
+    .put("operation", "DELETED")
+    .put("changed", new JsonObject())
+    .put("removed", new JsonArray());
+
+  @Test
+  public void replayTest() {
+    assertThat(EventConfigVersions.replay(List.of(CREATED)), is(CREATED.getJsonObject("changed")));
+    assertThat(EventConfigVersions.replay(List.of(CREATED, UPDATED)), is(new JsonObject()
+      .put("id", "1").put("active", false).put("templates", new JsonArray().add("b"))));
+    assertThat(EventConfigVersions.replay(List.of(CREATED, UPDATED, DELETED)), nullValue());
+    assertThat(EventConfigVersions.replay(List.of()), nullValue());
+    assertThat(CREATED.getJsonObject("changed").getBoolean("active"), is(true));
+  }
+
+  @Test
+  public void parseAsOfTest() {
+    OffsetDateTime expected = OffsetDateTime.of(2026, 1, 12, 9, 30, 0, 0, ZoneOffset.UTC);
+
+    assertThat(EventConfigVersions.parseAsOf("2026-01-12T09:30:00Z"), is(expected));
+    assertThat(EventConfigVersions.parseAsOf("2026-01-12T09:30:00"), is(expected));
+    assertThat(EventConfigVersions.parseAsOf("2026-01-12T10:30:00.000+0100").isEqual(expected), is(true));
+    assertThat(EventConfigVersions.parseAsOf("2026-01-12T10:30:00+01:00").isEqual(expected), is(true));
+    assertThat(EventConfigVersions.parseAsOf("yesterday"), nullValue());
+  }
+}
@@ -0,0 +1,87 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.folio.rest.impl.util.EventTemplateValidator;
+import org.folio.rest.impl.util.OkapiTemplateIdChecker;
+import org.folio.rest.impl.util.TemplateIdChecker;
+import org.folio.rest.jaxrs.model.Errors;
+import org.folio.rest.jaxrs.model.Template;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+public class EventTemplateValidatorTest {
+
+  private static final EventTemplateValidator VALIDATOR = new EventTemplateValidator(
+    Set.of("text/html", "text/plain"), Set.of("email", "sms"), TemplateIdChecker.NONE);
+
+  @Test
+  public void validTemplatesTest() {
+    assertThat(VALIDATOR.validate(List.of(
+      template("1", "email", "text/html"),
+      template("2", "email", "text/plain"),
+      template("3", "sms", "text/plain"))), nullValue());
+    assertThat(VALIDATOR.validate(List.of()), nullValue());
+  }
+
+  @Test
+  public void invalidTemplatesTest() {
+    Errors errors = VALIDATOR.validate(List.of(
+      template("1", "email", "text/html"),
+      template("2", "fax", "application/pdf"),
+      template("3", "email", "text/html")));
+
+    assertThat(errors.getTotalRecords(), is(3));
+    assertThat(errors.getErrors().get(0).getParameters().get(0).getKey(), is("templates[1].outputFormat"));
+    assertThat(errors.getErrors().get(1).getParameters().get(0).getKey(), is("templates[1].deliveryChannel"));
+    assertThat(errors.getErrors().get(2).getParameters().get(0).getKey(), is("templates[2]"));
+    assertThat(errors.getErrors().get(0).getMessage(), is("Output format must be one of [text/html, text/plain]"));
+    assertThat(errors.getErrors().get(1).getMessage(), is("Delivery channel must be one of [email, sms]"));
+  }
+
+  @Test
+  public void disabledRulesTest() {
+    EventTemplateValidator validator = new EventTemplateValidator(Set.of(), Set.of(), TemplateIdChecker.NONE);
+
+    assertThat(validator.validate(List.of(template("1", "fax", "application/pdf"))), nullValue());
+  }
+
+  @Test
+  public void templateIdCheckerTest() {
+    EventTemplateValidator validator = new EventTemplateValidator(Set.of("text/html"), Set.of("email"),
+      (templateIds, okapiHeaders) -> Future.succeededFuture(templateIds.contains("missing") ? List.of("missing") : List.of()));
+
+    assertThat(validator.validate(List.of(template("1", "email", "text/html")), Map.of()).result(), nullValue());
+    Errors errors = validator.validate(List.of(template("missing", "email", "text/html")), Map.of()).result();
+    assertThat(errors.getErrors().get(0).getParameters().get(0).getValue(), is("missing"));
+  }
+
+  @Test
+  public void okapiTemplateIdCheckerRejectsNonUuidsTest() {
+    Vertx vertx = Vertx.vertx();
+    try {
+      // nothing listens on the Okapi URL, the ids are rejected without a lookup
+      List<String> missing = new OkapiTemplateIdChecker(vertx, 100)
+        .missing(Set.of("../users", "a?b=c"), Map.of("x-okapi-url", "http://localhost:1"))
+        .toCompletionStage().toCompletableFuture().join();
+      assertThat(Set.copyOf(missing), is(Set.of("../users", "a?b=c")));
+    } finally {
+      vertx.close();
+    }
+  }
+
+  private static Template template(String templateId, String deliveryChannel, String outputFormat) {
+    return new Template()
+      .withTemplateId(templateId)
+      .withDeliveryChannel(deliveryChannel)
+      .withOutputFormat(outputFormat);
+  }
+}
@@ -0,0 +1,73 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.UUID;
+
+import org.folio.rest.impl.util.ExactMatchQuery;
+import org.folio.rest.impl.util.ExactMatchQuery.Field;
+import org.folio.rest.impl.util.TotalRecords;
+import org.junit.Test;
+
+public class ExactMatchQueryTest {
+
+  @Test
+  public void parseNameTest() {
+    ExactMatchQuery query = ExactMatchQuery.parse("name==RESET_PASSWORD_EVENT").orElseThrow();
+    assertThat(query.getField(), is(Field.NAME));
+    assertThat(query.getValue(), is("RESET_PASSWORD_EVENT"));
+    assertThat(query.getCacheKey(), is("reset_password_event"));
+    assertThat(query.toWhereClause("diku_mod_event_config"),
+      is("lower(diku_mod_event_config.f_unaccent(jsonb->>'name')) = lower(diku_mod_event_config.f_unaccent($1))"));
+
+    query = ExactMatchQuery.parse(" name == \"RESET PASSWORD\" ").orElseThrow();
+    assertThat(query.getValue(), is("RESET PASSWORD"));
+  }
+
+  @Test
+  public void parseIdTest() {
+    String id = UUID.randomUUID().toString();
+    ExactMatchQuery query = ExactMatchQuery.parse("id==" + id).orElseThrow();
+    assertThat(query.getField(), is(Field.ID));
+    assertThat(query.toTuple().getUUID(0), is(UUID.fromString(id)));
+
+    assertThat(ExactMatchQuery.parse("id==0002").isPresent(), is(false));
+  }
+
+  @Test
+  public void parseActiveTest() {
+    ExactMatchQuery query = ExactMatchQuery.parse("active==TRUE").orElseThrow();
+    assertThat(query.getField(), is(Field.ACTIVE));
+    assertThat(query.getValue(), is("true"));
+
+    assertThat(ExactMatchQuery.parse("active==yes").isPresent(), is(false));
+  }
+
+  @Test
+  public void countModeTest() {
+    ExactMatchQuery name = ExactMatchQuery.parse("name==RESET").orElseThrow();
+    assertThat(name.countMode(TotalRecords.NONE), is(TotalRecords.NONE));
+    assertThat(name.countMode(TotalRecords.ESTIMATED), is(TotalRecords.EXACT));
+    ExactMatchQuery active = ExactMatchQuery.parse("active==true").orElseThrow();
+    assertThat(active.countMode(TotalRecords.NONE), is(TotalRecords.NONE));
+    assertThat(active.countMode(TotalRecords.ESTIMATED), is(TotalRecords.ESTIMATED));
+    assertThat(active.countMode(TotalRecords.EXACT), is(TotalRecords.EXACT));
+    assertThat(active.toLiteralWhereClause("diku_mod_event_config"), is("jsonb->>'active' = 'true'"));
+    assertThat(ExactMatchQuery.parse("name==\"O'Brien\"").orElseThrow().toLiteralWhereClause("s"),
+      is("lower(s.f_unaccent(jsonb->>'name')) = lower(s.f_unaccent('O''Brien'))"));
+  }
+
+  @Test
+  public void parseUnsupportedQueryTest() {
+    assertThat(ExactMatchQuery.parse(null).isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("cql.allRecords=1").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name=RESET").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name==RESET*").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name==\"RESET\\\"\"").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name==/respectCase RESET").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name==RESET and active==true").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("name==RESET sortBy id").isPresent(), is(false));
+    assertThat(ExactMatchQuery.parse("templates==email").isPresent(), is(false));
+  }
+}
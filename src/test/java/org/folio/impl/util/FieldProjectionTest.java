@@ -0,0 +1,41 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import org.folio.rest.impl.util.FieldProjection;
+import org.junit.Test;
+
+import io.vertx.sqlclient.Tuple;
+
+public class FieldProjectionTest {
+
+  @Test
+  public void allTest() {
+    FieldProjection projection = FieldProjection.of(null, null);
+
+    assertThat(projection.isAll(), is(true));
+    assertThat(projection.toSelect(3), is("jsonb"));
+    assertThat(projection.bind(Tuple.of(10)).size(), is(1));
+  }
+
+  @Test
+  public void fieldsTest() {
+    FieldProjection projection = FieldProjection.of("active,name", null);
+
+    assertThat(projection.isAll(), is(false));
+    assertThat(projection.toSelect(3),
+      is("jsonb_strip_nulls(jsonb_build_object('id', jsonb->'id', 'name', jsonb->'name', 'active', jsonb->'active'))"));
+    assertThat(projection.bind(Tuple.of(10)).size(), is(1));
+  }
+
+  @Test
+  public void deliveryChannelTest() {
+    FieldProjection projection = FieldProjection.of("name", "email");
+
+    assertThat(projection.toSelect(3), is("jsonb_strip_nulls(jsonb_build_object('id', jsonb->'id', 'name', jsonb->'name', "
+      + "'templates', jsonb_path_query_array(jsonb->'templates', '$[*] ? (@.deliveryChannel == $channel)', "
+      + "jsonb_build_object('channel', $3::text))))"));
+    assertThat(projection.bind(Tuple.of(10)).getString(1), is("email"));
+  }
+}
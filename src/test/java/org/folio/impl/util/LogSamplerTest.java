@@ -0,0 +1,32 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.rest.impl.util.LogSampler;
+import org.junit.Test;
+
+public class LogSamplerTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  public void sampleTest() {
+    LogSampler sampler = new LogSampler(1000, nanoTime::get);
+
+    assertThat(sampler.sample("invalid_query"), is(0L));
+    assertThat(sampler.sample("invalid_query"), is(-1L));
+    assertThat(sampler.sample("invalid_query"), is(-1L));
+    assertThat(sampler.sample("unique_violation"), is(0L));
+
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertThat(sampler.sample("invalid_query"), is(-1L));
+
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    assertThat(sampler.sample("invalid_query"), is(3L));
+    assertThat(sampler.sample("invalid_query"), is(-1L));
+  }
+}
@@ -0,0 +1,61 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.util.StringMap;
+import org.folio.okapi.common.logging.FolioLoggingContext;
+import org.folio.rest.impl.util.LoggingContextDataProvider;
+import org.junit.Test;
+
+import io.vertx.core.Vertx;
+
+public class LoggingContextDataProviderTest {
+
+  private final LoggingContextDataProvider provider = new LoggingContextDataProvider();
+
+  @Test
+  public void noContextTest() {
+    StringMap first = provider.supplyStringMap();
+    assertThat(first.isEmpty(), is(true));
+    assertThat(provider.supplyStringMap(), sameInstance(first));
+    assertThat(provider.supplyContextData().isEmpty(), is(true));
+  }
+
+  @Test
+  public void contextTest() throws Exception {
+    Vertx vertx = Vertx.vertx();
+    try {
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      vertx.runOnContext(v -> {
+        try {
+          FolioLoggingContext.put("tenantId", "diku");
+          FolioLoggingContext.put("requestId", "123456/event-config");
+
+          StringMap first = provider.supplyStringMap();
+          assertThat(first.size(), is(2));
+          assertThat(first.getValue("tenantId"), is("diku"));
+          assertThat(first.getValue("requestId"), is("123456/event-config"));
+
+          Map<String, String> copy = provider.supplyContextData();
+          FolioLoggingContext.put("tenantId", "other");
+          StringMap second = provider.supplyStringMap();
+          assertThat(second, sameInstance(first));
+          assertThat(second.getValue("tenantId"), is("other"));
+          assertThat(copy.get("tenantId"), is("diku"));
+          done.complete(null);
+        } catch (Throwable e) {
+          done.completeExceptionally(e);
+        }
+      });
+      done.get(5, TimeUnit.SECONDS);
+    } finally {
+      vertx.close();
+    }
+  }
+}
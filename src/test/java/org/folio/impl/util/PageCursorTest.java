@@ -0,0 +1,30 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.UUID;
+
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.rest.impl.util.PageCursor;
+import org.junit.Test;
+
+public class PageCursorTest {
+
+  @Test
+  public void encodeDecodeTest() throws QueryValidationException {
+    UUID id = UUID.randomUUID();
+
+    assertThat(PageCursor.decode(PageCursor.encode(id.toString())), is(id));
+  }
+
+  @Test(expected = QueryValidationException.class)
+  public void invalidBase64Test() throws QueryValidationException {
+    PageCursor.decode("not base64!");
+  }
+
+  @Test(expected = QueryValidationException.class)
+  public void invalidIdTest() throws QueryValidationException {
+    PageCursor.decode(PageCursor.encode("not an id"));
+  }
+}
@@ -0,0 +1,56 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.folio.rest.impl.util.ReadReplica;
+import org.junit.Test;
+
+public class ReadReplicaTest {
+
+  private static final String TENANT_ID = "diku";
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  public void disabledTest() {
+    ReadReplica readReplica = new ReadReplica(null, 5432, 1000, 0, nanoTime::get);
+
+    assertThat(readReplica.isEnabled(), is(false));
+    assertThat(readReplica.useReader(TENANT_ID), is(false));
+    assertThat(readReplica.isShared(), is(false));
+  }
+
+  @Test
+  public void sharedPoolTest() {
+    ReadReplica readReplica = new ReadReplica("reader", 5432, 1000, 20, nanoTime::get);
+
+    assertThat(readReplica.isShared(), is(true));
+    assertThat(readReplica.useReader(TENANT_ID), is(true));
+  }
+
+  @Test
+  public void readYourWritesTest() {
+    ReadReplica readReplica = new ReadReplica("reader", 5432, 1000, 0, nanoTime::get);
+    assertThat(readReplica.useReader(TENANT_ID), is(true));
+
+    readReplica.written(TENANT_ID);
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    assertThat(readReplica.useReader(TENANT_ID), is(false));
+    assertThat(readReplica.useReader("other"), is(true));
+
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    assertThat(readReplica.useReader(TENANT_ID), is(true));
+  }
+
+  @Test
+  public void readYourWritesDisabledTest() {
+    ReadReplica readReplica = new ReadReplica("reader", 5432, 0, 0, nanoTime::get);
+    readReplica.written(TENANT_ID);
+
+    assertThat(readReplica.useReader(TENANT_ID), is(true));
+  }
+}
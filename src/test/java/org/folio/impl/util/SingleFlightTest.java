@@ -0,0 +1,60 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.rest.impl.util.SingleFlight;
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class SingleFlightTest {
+
+  @Test
+  public void sharedWhileInFlightTest() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger reads = new AtomicInteger();
+    Promise<String> read = Promise.promise();
+
+    Future<String> first = singleFlight.execute("name==RESET_PASSWORD_EVENT", () -> {
+      reads.incrementAndGet();
+      return read.future();
+    });
+    Future<String> second = singleFlight.execute("name==RESET_PASSWORD_EVENT", () -> {
+      reads.incrementAndGet();
+      return Future.succeededFuture("second");
+    });
+
+    assertThat(second, sameInstance(first));
+    assertThat(reads.get(), is(1));
+    assertThat(singleFlight.size(), is(1));
+
+    read.complete("first");
+    assertThat(second.result(), is("first"));
+    assertThat(singleFlight.size(), is(0));
+  }
+
+  @Test
+  public void notSharedAfterCompletionTest() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    singleFlight.execute("active==true", () -> Future.failedFuture("failure"));
+
+    Future<String> next = singleFlight.execute("active==true", () -> Future.succeededFuture("next"));
+    assertThat(next.result(), is("next"));
+  }
+
+  @Test
+  public void supplierThrowsTest() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    Future<String> failed = singleFlight.execute("active==true", () -> {
+      throw new IllegalStateException("failure");
+    });
+
+    assertThat(failed.failed(), is(true));
+    assertThat(singleFlight.size(), is(0));
+  }
+}
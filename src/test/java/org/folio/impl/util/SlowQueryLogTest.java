@@ -0,0 +1,75 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.rest.impl.util.SlowQueryLog;
+import org.folio.rest.jaxrs.model.SlowQuery;
+import org.folio.rest.jaxrs.model.SlowQueryCollection;
+import org.junit.Test;
+
+public class SlowQueryLogTest {
+
+  @Test
+  public void normalizeTest() {
+    assertThat(SlowQueryLog.normalize(null), is(""));
+    assertThat(SlowQueryLog.normalize(" "), is(""));
+    assertThat(SlowQueryLog.normalize("name==RESET_PASSWORD_EVENT"), is("name== ?"));
+    assertThat(SlowQueryLog.normalize("name == \"RESET \\\"PASSWORD\\\"\""), is("name == ?"));
+    assertThat(SlowQueryLog.normalize("templates=\"email*\"   and active=true sortBy name/sort.descending"),
+      is("templates= ? and active= ? sortBy name/sort.descending"));
+    assertThat(SlowQueryLog.normalize("name any \"A B\" or (name=/string C)"), is("name any ? or (name=/string ?)"));
+    assertThat(SlowQueryLog.normalize("cql.allRecords=1"), is("cql.allRecords= ?"));
+  }
+
+  @Test
+  public void thresholdTest() {
+    assertThat(new SlowQueryLog(0, false, 2, System::nanoTime).isEnabled(), is(true));
+    assertThat(new SlowQueryLog(-1, false, 2, System::nanoTime).isEnabled(), is(false));
+    assertThat(new SlowQueryLog(100, false, 0, System::nanoTime).isEnabled(), is(false));
+  }
+
+  @Test
+  public void topTest() {
+    SlowQueryLog log = new SlowQueryLog(100, false, 2, System::nanoTime);
+
+    assertThat(log.record("diku", "page", "name=A", "SELECT A", 3, TimeUnit.MILLISECONDS.toNanos(200)), is(true));
+    assertThat(log.record("diku", "page", "name=B", "SELECT B", 5, TimeUnit.MILLISECONDS.toNanos(400)), is(false));
+    assertThat(log.record("diku", "count", "name=B", "SELECT count B", 1, TimeUnit.MILLISECONDS.toNanos(900)),
+      is(true));
+    assertThat(log.record("other", "page", "active=true", "SELECT C", 1, TimeUnit.MILLISECONDS.toNanos(5000)),
+      is(true));
+
+    SlowQueryCollection top = log.top("diku", 10);
+    assertThat(top.getTotalRecords(), is(2));
+    List<SlowQuery> slowQueries = top.getSlowQueries();
+    assertThat(slowQueries.get(0).getStatement(), is(SlowQuery.Statement.COUNT));
+    assertThat(slowQueries.get(0).getMaxMillis(), is(900));
+    SlowQuery page = slowQueries.get(1);
+    assertThat(page.getCql(), is("name= ?"));
+    assertThat(page.getSql(), is("SELECT B"));
+    assertThat(page.getCount(), is(2));
+    assertThat(page.getMaxMillis(), is(400));
+    assertThat(page.getMeanMillis(), is(300));
+    assertThat(page.getLastRows(), is(5));
+
+    assertThat(log.top("diku", 1).getSlowQueries().size(), is(1));
+    assertThat(log.top("diku", 1).getTotalRecords(), is(2));
+    assertThat(log.top("unknown", 10).getTotalRecords(), is(0));
+  }
+
+  @Test
+  public void evictionTest() {
+    SlowQueryLog log = new SlowQueryLog(100, false, 2, System::nanoTime);
+    log.record("diku", "page", "name=A", "SELECT A", 1, TimeUnit.SECONDS.toNanos(9));
+    log.record("diku", "page", "active=true", "SELECT B", 1, TimeUnit.SECONDS.toNanos(1));
+    log.record("diku", "page", "id=1", "SELECT C", 1, TimeUnit.SECONDS.toNanos(1));
+
+    SlowQueryCollection top = log.top("diku", 10);
+    assertThat(top.getTotalRecords(), is(2));
+    assertThat(top.getSlowQueries().get(0).getCql(), is("active= ?"));
+  }
+}
@@ -0,0 +1,91 @@
+package org.folio.impl.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.folio.rest.impl.util.EventConfigMetrics;
+import org.folio.rest.impl.util.TenantBusyException;
+import org.folio.rest.impl.util.TenantQueryLimiter;
+import org.junit.Test;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class TenantQueryLimiterTest {
+
+  private static final String TENANT_ID = "diku";
+
+  @Test
+  public void queuedAboveLimitTest() {
+    EventConfigMetrics metrics = metrics();
+    TenantQueryLimiter limiter = new TenantQueryLimiter(1, 10, metrics);
+    AtomicInteger started = new AtomicInteger();
+    Promise<String> first = Promise.promise();
+
+    Future<String> running = limiter.execute(TENANT_ID, () -> {
+      started.incrementAndGet();
+      return first.future();
+    });
+    Future<String> waiting = limiter.execute(TENANT_ID, () -> {
+      started.incrementAndGet();
+      return Future.succeededFuture("second");
+    });
+    Future<String> otherTenant = limiter.execute("other", () -> Future.succeededFuture("other"));
+
+    assertThat(started.get(), is(1));
+    assertThat(waiting.isComplete(), is(false));
+    assertThat(otherTenant.result(), is("other"));
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.TENANT_QUERIES).tag("state", "waiting").gauge().value(), is(1.0));
+
+    first.complete("first");
+    assertThat(running.result(), is("first"));
+    assertThat(waiting.result(), is("second"));
+    assertThat(limiter.running(), is(0));
+    assertThat(limiter.waiting(), is(0));
+  }
+
+  @Test
+  public void rejectedAboveQueueTest() {
+    EventConfigMetrics metrics = metrics();
+    TenantQueryLimiter limiter = new TenantQueryLimiter(1, 1, metrics);
+    Promise<String> first = Promise.promise();
+    limiter.execute(TENANT_ID, first::future);
+    limiter.execute(TENANT_ID, () -> Future.succeededFuture("second"));
+
+    Future<String> rejected = limiter.execute(TENANT_ID, () -> Future.succeededFuture("third"));
+
+    assertThat(rejected.cause(), instanceOf(TenantBusyException.class));
+    assertThat(metrics.getRegistry().get(EventConfigMetrics.TENANT_QUERIES_REJECTED)
+      .counter().count(), is(1.0));
+    assertThat(metrics.scrape().contains(TENANT_ID), is(false));
+  }
+
+  @Test
+  public void failedQueryReleasesTest() {
+    TenantQueryLimiter limiter = new TenantQueryLimiter(1, 1, metrics());
+    limiter.execute(TENANT_ID, () -> {
+      throw new IllegalStateException("failure");
+    });
+
+    assertThat(limiter.running(), is(0));
+    assertThat(limiter.execute(TENANT_ID, () -> Future.succeededFuture("next")).result(), is("next"));
+  }
+
+  @Test
+  public void unlimitedTest() {
+    TenantQueryLimiter limiter = new TenantQueryLimiter(0, 0, metrics());
+    Promise<String> first = Promise.promise();
+    limiter.execute(TENANT_ID, first::future);
+
+    assertThat(limiter.execute(TENANT_ID, () -> Future.succeededFuture("second")).result(), is("second"));
+  }
+
+  private static EventConfigMetrics metrics() {
+    return new EventConfigMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+  }
+}